@@ -0,0 +1,71 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import meridian.main.GameParam;
+import meridian.map.BenchmarkMaps;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * One tick of the monster systems (movement and animation) with the monsters wandering on
+ * a map with scattered walls - the movement on the calling thread and split by the pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityStoreBenchmark {
+
+   private static final int MAP_SIZE = 512;
+   // Percent of the walls of the generated map.
+   private static final int WALL_DENSITY = 15;
+
+   @Param({"1000", "10000"})
+   private int monsters;
+
+   @Param({"false", "true"})
+   private boolean parallel;
+
+   private MapManager mapManager;
+   private EntityStore store;
+   private MovementSystem movement;
+   private final AnimationSystem animation = new AnimationSystem();
+   private final SplittableRandom random = new SplittableRandom(17);
+   private int tick;
+
+   @Setup
+   public void setup() {
+      mapManager = BenchmarkMaps.load(MAP_SIZE, WALL_DENSITY);
+
+      CollisionChecker collisionChecker = new CollisionChecker(mapManager);
+      movement = new MovementSystem(collisionChecker, parallel ? ForkJoinPool.commonPool() : null);
+      store = new EntityStore(monsters);
+      for (int i = 0; i < monsters; i++) {
+         int id = store.create(1 + random.nextInt(MAP_SIZE - 2), 1 + random.nextInt(MAP_SIZE - 2), GameParam.PIXEL_SCALE, 5);
+         store.setIntent(id, EntityStore.DIRECTIONS[random.nextInt(4)]);
+      }
+   }
+
+   // A few monsters change their wanted direction in every tick.
+   @Benchmark
+   public EntityStore tick() {
+      int id = store.idAt((tick++ * 31) % monsters);
+      store.setIntent(id, EntityStore.DIRECTIONS[random.nextInt(4)]);
+
+      movement.update(store);
+      animation.update(store);
+      return store;
+   }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import meridian.map.BenchmarkMaps;
+import meridian.map.ChunkSource;
+import meridian.map.MapGrid;
+import meridian.map.ShadeMatrix;
+import meridian.tile.TileManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Scaling of the light calculation with the number of threads: every light source of the
+ * screen area moves in every update, so all of them must be calculated again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LightingBenchmark {
+
+   private static final int VIEWER_COL = 32;
+   private static final int VIEWER_ROW = 32;
+
+   @Param({"1", "2", "4", "8"})
+   private int threads;
+
+   @Param({"8", "32"})
+   private int lightCount;
+
+   private ForkJoinPool pool;
+   private MapGrid grid;
+   private LightingEngine engine;
+   private final List<LightSource> lights = new ArrayList<>();
+   private int step;
+
+   @Setup
+   public void setup() {
+      TileManager tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+
+      // Floor with pillars.
+      ChunkSource source = BenchmarkMaps.source((col, row) -> col % 4 == 2 && row % 3 == 1);
+      grid = new MapGrid(64, 64, tileManager, source);
+
+      // One thread runs on the calling thread without a pool.
+      pool = threads > 1 ? new ForkJoinPool(threads) : null;
+      engine = new LightingEngine(new ShadeMatrix(), pool);
+
+      // Sources spread over the screen area.
+      for (int i = 0; i < lightCount; i++) {
+         LightSource light = new LightSource(VIEWER_COL - 9 + (i * 7) % 19, VIEWER_ROW - 7 + (i * 5) % 15, 2);
+         lights.add(light);
+         engine.addLight(light);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      if (pool != null) {
+         pool.shutdown();
+      }
+   }
+
+   @Benchmark
+   public MapGrid movingLights() {
+      int delta = (step++ & 1) == 0 ? 1 : -1;
+      for (LightSource light : lights) {
+         light.setCol(light.getCol() + delta);
+      }
+      engine.update(grid, VIEWER_COL, VIEWER_ROW, 1);
+      return grid;
+   }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.main.GameParam;
+import meridian.tile.TileManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+
+/**
+ * Generated maps of the benchmarks: floor with randomly placed walls (fixed seed, so every
+ * run measures the same map), wall border and a free area around the center.
+ */
+public final class BenchmarkMaps {
+
+   public static final short WALL_ID = 0;
+   public static final short FLOOR_ID = 22;
+
+   private static final long SEED = 20230611L;
+
+   // Free cells around the center (the place of the viewer).
+   private static final int FREE_RADIUS = 1;
+
+   // Wall cells of a drawn layout.
+   public interface Walls {
+      boolean isWall(int col, int row);
+   }
+
+   private BenchmarkMaps() {
+
+   }
+
+
+   /**
+    * @param size columns and rows of the map.
+    * @param wallDensity percent of the walls.
+    * @return tile ids in row order.
+    */
+   public static short[] tileIds(int size, int wallDensity) {
+      SplittableRandom random = new SplittableRandom(SEED);
+      short[] tileIds = new short[size * size];
+      int center = size / 2;
+
+      for (int row = 0; row < size; row++) {
+         for (int col = 0; col < size; col++) {
+            boolean border = col == 0 || row == 0 || col == size - 1 || row == size - 1;
+            boolean free = Math.abs(col - center) <= FREE_RADIUS && Math.abs(row - center) <= FREE_RADIUS;
+            boolean wall = border || (!free && random.nextInt(100) < wallDensity);
+            tileIds[row * size + col] = wall ? WALL_ID : FLOOR_ID;
+         }
+      }
+      return tileIds;
+   }
+
+   public static ChunkSource source(short[] tileIds, int size) {
+      return (startCol, startRow, cols, rows, target, targetStride) -> {
+         for (int row = 0; row < rows; row++) {
+            System.arraycopy(tileIds, (startRow + row) * size + startCol, target, row * targetStride, cols);
+         }
+      };
+   }
+
+   // Source of a drawn layout.
+   public static ChunkSource source(Walls walls) {
+      return (startCol, startRow, cols, rows, target, targetStride) -> {
+         for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+               target[row * targetStride + col] = walls.isWall(startCol + col, startRow + row) ? WALL_ID : FLOOR_ID;
+            }
+         }
+      };
+   }
+
+   // Map manager (tiles without graphics) with the loaded map - the benchmarks of the simulation use it.
+   public static MapManager load(int size, int wallDensity) {
+      TileManager tileManager = TileManager.withoutGraphics();
+      tileManager.loadTiles("dungeon_basic_set_01");
+      MapManager mapManager = new MapManager(tileManager, ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW));
+      mapManager.loadGrid(source(tileIds(size, wallDensity), size), size, size);
+      return mapManager;
+   }
+
+   // Content of the text '.map' file of the tile ids.
+   static byte[] text(short[] tileIds, int size) {
+      StringBuilder sb = new StringBuilder(tileIds.length * 3);
+      for (int row = 0; row < size; row++) {
+         for (int col = 0; col < size; col++) {
+            if (col > 0) {
+               sb.append(' ');
+            }
+            sb.append(tileIds[row * size + col]);
+         }
+         sb.append('\n');
+      }
+      return sb.toString().getBytes(StandardCharsets.UTF_8);
+   }
+
+}
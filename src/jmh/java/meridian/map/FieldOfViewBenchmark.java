@@ -0,0 +1,72 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.light.LightBuffer;
+import meridian.main.GameParam;
+import meridian.tile.TileManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Sight of the viewer on the screen area by the field of view algorithms on different
+ * map layouts - to choose the algorithm of a map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldOfViewBenchmark {
+
+   private static final int VIEWER_COL = 32;
+   private static final int VIEWER_ROW = 32;
+
+   @Param({FieldOfView.SHADE_MATRIX, FieldOfView.SHADOWCASTING})
+   private String algorithm;
+
+   @Param({"open", "corridors", "pillars"})
+   private String layout;
+
+   private MapGrid grid;
+   private FieldOfView fieldOfView;
+   private LightBuffer buffer;
+
+   @Setup
+   public void setup() {
+      TileManager tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+
+      grid = new MapGrid(64, 64, tileManager, BenchmarkMaps.source(this::isWall));
+
+      fieldOfView = FieldOfView.forReach(algorithm, GameParam.MAX_SCREEN_COL / 2 + 1, GameParam.MAX_SCREEN_ROW / 2 + 1);
+      buffer = new LightBuffer(GameParam.MAX_SCREEN_COL + 3, GameParam.MAX_SCREEN_ROW + 2);
+      buffer.moveTo(VIEWER_COL - GameParam.MAX_SCREEN_COL / 2 - 1, VIEWER_ROW - GameParam.MAX_SCREEN_ROW / 2 - 1);
+   }
+
+   private boolean isWall(int col, int row) {
+      switch (layout) {
+         case "corridors":
+            // Horizontal corridors of 2 cells with doorways.
+            return row % 3 == 0 && col % 8 != 0;
+         case "pillars":
+            return col % 3 == 1 && row % 3 == 1;
+         default:
+            // One big room.
+            return col == 0 || row == 0 || col == 63 || row == 63;
+      }
+   }
+
+   @Benchmark
+   public LightBuffer sight() {
+      buffer.fill(1.0f);
+      fieldOfView.updateMapCellsVisibility(grid, VIEWER_COL, VIEWER_ROW, buffer);
+      return buffer;
+   }
+
+}
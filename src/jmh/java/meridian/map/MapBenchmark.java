@@ -0,0 +1,167 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.entity.Direction;
+import meridian.entity.Entity;
+import meridian.entity.Player;
+import meridian.light.LightBuffer;
+import meridian.light.LightSource;
+import meridian.main.GameParam;
+import meridian.main.KeyHandler;
+import meridian.tile.TileManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Hot paths of a tick and a frame on generated maps of different sizes and wall densities:
+ * sight of the viewer, update of the lights, drawing the map into an offscreen image and
+ * the collision checks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+
+   // Light sources of the map and checked entities.
+   private static final int LIGHT_COUNT = 8;
+   private static final int ENTITY_COUNT = 256;
+
+   private static final Direction[] DIRECTIONS = Direction.values();
+
+   @Param({"64", "256", "1024"})
+   private int size;
+
+   @Param({"0", "15", "35"})
+   private int wallDensity;
+
+   private MapManager mapManager;
+   private ShadeMatrix shadeMatrix;
+   private CollisionChecker collisionChecker;
+   private Player player;
+   private final Camera camera = new Camera();
+   private LightBuffer buffer;
+   private BufferedImage screen;
+   private Graphics2D g2;
+   private final Entity[] entities = new Entity[ENTITY_COUNT];
+
+   // The same entities and directions for the batch (every entity with every direction).
+   private final int[] cols = new int[ENTITY_COUNT * DIRECTIONS.length];
+   private final int[] rows = new int[ENTITY_COUNT * DIRECTIONS.length];
+   private final int[] shiftXs = new int[ENTITY_COUNT * DIRECTIONS.length];
+   private final int[] shiftYs = new int[ENTITY_COUNT * DIRECTIONS.length];
+   private final byte[] directions = new byte[ENTITY_COUNT * DIRECTIONS.length];
+   private final boolean[] allowed = new boolean[ENTITY_COUNT * DIRECTIONS.length];
+   private int step;
+
+   @Setup
+   public void setup() {
+      TileManager tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+
+      shadeMatrix = ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW);
+      mapManager = new MapManager(tileManager, shadeMatrix);
+      mapManager.loadGrid(BenchmarkMaps.source(BenchmarkMaps.tileIds(size, wallDensity), size), size, size);
+      collisionChecker = new CollisionChecker(mapManager);
+
+      // Player in the center, light sources around it.
+      int center = size / 2;
+      player = new Player(new KeyHandler(), collisionChecker);
+      player.setWorldCol(center);
+      player.setWorldRow(center);
+      player.storePreviousPosition();
+      for (int i = 0; i < LIGHT_COUNT; i++) {
+         mapManager.getLightingEngine().addLight(new LightSource(center - 8 + (i * 5) % 17, center - 6 + (i * 3) % 13, 2));
+      }
+      mapManager.updateLights(player);
+
+      buffer = new LightBuffer(GameParam.MAX_SCREEN_COL + 3, GameParam.MAX_SCREEN_ROW + 2);
+      buffer.moveTo(center - GameParam.MAX_SCREEN_COL / 2 - 1, center - GameParam.MAX_SCREEN_ROW / 2 - 1);
+
+      screen = TileManager.createCompatibleImage(GameParam.SCREEN_WIDTH, GameParam.SCREEN_HEIGHT, Transparency.OPAQUE);
+      g2 = screen.createGraphics();
+
+      // Entities spread over the map between the cells (partial positions check two cells).
+      SplittableRandom random = new SplittableRandom(size);
+      for (int i = 0; i < ENTITY_COUNT; i++) {
+         Entity entity = new Entity();
+         entity.setWorldCol(1 + random.nextInt(size - 2));
+         entity.setWorldRow(1 + random.nextInt(size - 2));
+         entity.setShiftX(random.nextInt(-GameParam.TILE_SIZE / 2, GameParam.TILE_SIZE / 2));
+         entity.setShiftY(random.nextInt(-GameParam.TILE_SIZE / 2, GameParam.TILE_SIZE / 2));
+         entities[i] = entity;
+
+         for (int d = 0; d < DIRECTIONS.length; d++) {
+            int index = i * DIRECTIONS.length + d;
+            cols[index] = entity.getWorldCol();
+            rows[index] = entity.getWorldRow();
+            shiftXs[index] = entity.getShiftX();
+            shiftYs[index] = entity.getShiftY();
+            directions[index] = (byte) d;
+         }
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      g2.dispose();
+   }
+
+   @Benchmark
+   public LightBuffer visibility() {
+      buffer.fill(1.0f);
+      shadeMatrix.updateMapCellsVisibility(mapManager.getGrid(), player.getWorldCol(), player.getWorldRow(), buffer);
+      return buffer;
+   }
+
+   // The player steps back and forth, so the light is calculated in every update.
+   @Benchmark
+   public MapGrid updateLights() {
+      player.setWorldCol(player.getWorldCol() + ((step++ & 1) == 0 ? 1 : -1));
+      mapManager.updateLights(player);
+      return mapManager.getGrid();
+   }
+
+   @Benchmark
+   public BufferedImage drawMap() {
+      camera.follow(player, 1.0f);
+      mapManager.drawMap(g2, camera);
+      return screen;
+   }
+
+   @Benchmark
+   public int canMove() {
+      int free = 0;
+      for (Entity entity : entities) {
+         for (Direction direction : DIRECTIONS) {
+            if (collisionChecker.canMove(entity, direction)) {
+               free++;
+            }
+         }
+      }
+      return free;
+   }
+
+   @Benchmark
+   public int canMoveBatch() {
+      collisionChecker.canMove(0, allowed.length, cols, rows, shiftXs, shiftYs, directions, allowed);
+      int free = 0;
+      for (boolean move : allowed) {
+         if (move) {
+            free++;
+         }
+      }
+      return free;
+   }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.main.GameParam;
+import meridian.tile.TileManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Loading a map from its text and its binary file: creating the source of the tile ids and
+ * the grid, and reading the chunks of the first screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapLoadBenchmark {
+
+   @Param({"64", "256", "1024"})
+   private int size;
+
+   @Param({"0", "15", "35"})
+   private int wallDensity;
+
+   private MapManager mapManager;
+   private byte[] text;
+   private Path binaryFile;
+
+   @Setup
+   public void setup() throws IOException {
+      TileManager tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+      mapManager = new MapManager(tileManager, ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW));
+
+      short[] tileIds = BenchmarkMaps.tileIds(size, wallDensity);
+      text = BenchmarkMaps.text(tileIds, size);
+      binaryFile = Files.createTempFile("map-benchmark-", BinaryMapFormat.FILE_EXTENSION);
+      BinaryMapFormat.write(binaryFile, size, size, tileIds);
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      Files.delete(binaryFile);
+   }
+
+   @Benchmark
+   public MapGrid textMap() {
+      mapManager.loadGrid(new TextMapSource(new ByteArrayInputStream(text), size, size), size, size);
+      return firstScreen();
+   }
+
+   @Benchmark
+   public MapGrid binaryMap() {
+      BinaryMapSource source = new BinaryMapSource(binaryFile);
+      mapManager.loadGrid(source, source.getWidth(), source.getHeight());
+      return firstScreen();
+   }
+
+   private MapGrid firstScreen() {
+      MapGrid grid = mapManager.getGrid();
+      grid.prefetch(size / 2, size / 2, GameParam.MAX_SCREEN_COL / 2 + 1, GameParam.MAX_SCREEN_ROW / 2 + 1);
+      return grid;
+   }
+
+}
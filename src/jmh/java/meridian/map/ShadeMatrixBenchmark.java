@@ -0,0 +1,62 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Creating a shade matrix of a reach: generating the table from the blocker coords and
+ * reading the same table from the disk cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShadeMatrixBenchmark {
+
+   @Param({"6", "10", "16"})
+   private int reach;
+
+   private int[][] coords;
+   private Path cacheDirectory;
+
+   @Setup
+   public void setup() throws IOException {
+      coords = ShadeMatrix.generateCoords(reach, reach);
+
+      // The first matrix writes the cache file.
+      cacheDirectory = Files.createTempDirectory("shade-benchmark-");
+      new ShadeMatrix(reach, reach, coords, cacheDirectory);
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      try (var files = Files.list(cacheDirectory)) {
+         for (Path file : (Iterable<Path>) files::iterator) {
+            Files.delete(file);
+         }
+      }
+      Files.delete(cacheDirectory);
+   }
+
+   @Benchmark
+   public ShadeMatrix generate() {
+      return new ShadeMatrix(reach, reach, ShadeMatrix.generateCoords(reach, reach), null);
+   }
+
+   @Benchmark
+   public ShadeMatrix readCache() {
+      return new ShadeMatrix(reach, reach, coords, cacheDirectory);
+   }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import meridian.map.BenchmarkMaps;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.SolidityMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Flood of the chase field after a step of the player on a 1000x1000 map with scattered
+ * walls - by the range of the chase.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowFieldBenchmark {
+
+   private static final int MAP_SIZE = 1000;
+
+   // Percent of the walls of the generated map (the center is free).
+   private static final int WALL_DENSITY = 20;
+
+   @Param({"32", "128"})
+   private int maxDistance;
+
+   private SolidityMap solidity;
+   private FlowField field;
+   private int step;
+
+   @Setup
+   public void setup() {
+      MapManager mapManager = BenchmarkMaps.load(MAP_SIZE, WALL_DENSITY);
+      solidity = new CollisionChecker(mapManager).currentSolidity();
+      field = new FlowField(maxDistance);
+   }
+
+   // The player steps back and forth in the free center.
+   @Benchmark
+   public int flood() {
+      field.flood(solidity, MAP_SIZE / 2 + (step++ & 1), MAP_SIZE / 2);
+      return field.getReachedCells();
+   }
+
+}
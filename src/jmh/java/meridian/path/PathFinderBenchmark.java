@@ -0,0 +1,84 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import meridian.map.BenchmarkMaps;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.SolidityMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * One tick of path requests on a 1000x1000 map with scattered walls: monsters searching
+ * for goals in their range - without the cache (every path is searched) and with a cache
+ * which holds most of the requests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+
+   private static final int MAP_SIZE = 1000;
+
+   // Percent of the walls of the generated map.
+   private static final int WALL_DENSITY = 20;
+
+   // Requests of a tick and the range of the goals.
+   private static final int REQUESTS = 100;
+   private static final int RANGE = 40;
+
+   @Param({"A_STAR", "JUMP_POINT"})
+   private PathFinder.Algorithm algorithm;
+
+   @Param({"0", "4096"})
+   private int cacheSize;
+
+   private PathFinder pathFinder;
+   private final int[] requests = new int[REQUESTS * 4 * 16];
+   private int next;
+
+   @Setup
+   public void setup() {
+      MapManager mapManager = BenchmarkMaps.load(MAP_SIZE, WALL_DENSITY);
+      CollisionChecker collisionChecker = new CollisionChecker(mapManager);
+      SolidityMap solidity = collisionChecker.currentSolidity();
+      pathFinder = new PathFinder(collisionChecker, cacheSize);
+
+      // Free starts and reachable goals in the range of the starts (16 ticks of requests - repeated by the cached
+      // runs). A closed in goal would be searched on the whole map.
+      SplittableRandom random = new SplittableRandom(9);
+      FlowField reach = new FlowField(4 * RANGE);
+      for (int i = 0; i < requests.length; i += 4) {
+         do {
+            requests[i] = RANGE + random.nextInt(MAP_SIZE - 2 * RANGE);
+            requests[i + 1] = RANGE + random.nextInt(MAP_SIZE - 2 * RANGE);
+            reach.flood(solidity, requests[i], requests[i + 1]);
+         } while (reach.getReachedCells() < RANGE * RANGE);
+         do {
+            requests[i + 2] = requests[i] + random.nextInt(-RANGE, RANGE);
+            requests[i + 3] = requests[i + 1] + random.nextInt(-RANGE, RANGE);
+         } while (reach.getDistance(requests[i + 2], requests[i + 3]) == FlowField.UNREACHABLE);
+      }
+   }
+
+   @Benchmark
+   public int tick() {
+      int steps = 0;
+      for (int r = 0; r < REQUESTS; r++, next = (next + 4) % requests.length) {
+         GridPath path = pathFinder.findPath(requests[next], requests[next + 1], requests[next + 2], requests[next + 3],
+               algorithm);
+         steps += path != null ? path.getSteps() : 0;
+      }
+      return steps;
+   }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.tile;
+
+import meridian.main.GameParam;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Cost of drawing a screen of tiles: scaling the raw 16x16 tile images at every draw
+ * versus copying the pre-scaled tiles of the atlas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileDrawBenchmark {
+
+   private static final int COLS = GameParam.MAX_SCREEN_COL + 2;
+   private static final int ROWS = GameParam.MAX_SCREEN_ROW + 2;
+
+   private TileManager tileManager;
+   private BufferedImage screen;
+   private Graphics2D g2;
+   private int[] tileIds;
+
+   @Setup
+   public void setup() {
+      tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+
+      screen = TileManager.createCompatibleImage(GameParam.SCREEN_WIDTH, GameParam.SCREEN_HEIGHT, Transparency.OPAQUE);
+      g2 = screen.createGraphics();
+
+      // Walls and floors mixed.
+      tileIds = new int[COLS * ROWS];
+      for (int i = 0; i < tileIds.length; i++) {
+         tileIds[i] = (i * 7) % 35;
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      g2.dispose();
+   }
+
+   @Benchmark
+   public BufferedImage scaledRawTiles() {
+      for (int row = 0; row < ROWS; row++) {
+         for (int col = 0; col < COLS; col++) {
+            g2.drawImage(tileManager.getTileByIndex(tileIds[row * COLS + col]).getImage(),
+                  col * GameParam.TILE_SIZE, row * GameParam.TILE_SIZE,
+                  GameParam.TILE_SIZE, GameParam.TILE_SIZE, null);
+         }
+      }
+      return screen;
+   }
+
+   @Benchmark
+   public BufferedImage preScaledAtlasTiles() {
+      for (int row = 0; row < ROWS; row++) {
+         for (int col = 0; col < COLS; col++) {
+            tileManager.drawTile(g2, tileIds[row * COLS + col], col * GameParam.TILE_SIZE, row * GameParam.TILE_SIZE);
+         }
+      }
+      return screen;
+   }
+
+}
@@ -0,0 +1,43 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import static meridian.entity.EntityStore.NONE;
+
+
+/**
+ * Animation phases of the entities of an EntityStore - the moving entities step their
+ * phases (the first phase is the standing one), the standing entities show the first phase.
+ */
+public class AnimationSystem {
+
+   // Ticks of a phase (the player's animation speed).
+   public static final int ANIMATION_SPEED = 10;
+
+
+   // One tick of the animation of all entities.
+   public void update(EntityStore store) {
+      int size = store.getSize();
+      byte[] phases = store.animationPhases;
+      byte[] ticks = store.animationTicks;
+
+      for (int i = 0; i < size; i++) {
+         int tick = ticks[i] + 1;
+         if (tick > ANIMATION_SPEED) {
+            if (store.movings[i] != NONE) {
+               int phase = phases[i] + 1;
+               phases[i] = (byte) (phase < store.animationLengths[i] ? phase : 1);
+            }
+            else {
+               phases[i] = 0;
+            }
+            tick = 0;
+         }
+         ticks[i] = (byte) tick;
+      }
+
+   }
+
+}
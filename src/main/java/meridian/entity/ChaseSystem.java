@@ -0,0 +1,32 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import meridian.path.FlowField;
+
+import static meridian.entity.EntityStore.NONE;
+
+
+/**
+ * Steers the entities of an EntityStore towards the target of a flow field (the player):
+ * the entities in the middle of a cell take their next step from the field. The entities
+ * out of the range of the field (or on the target) stop.
+ */
+public class ChaseSystem {
+
+   // Sets the wanted direction of the standing entities.
+   public void update(EntityStore store, FlowField field) {
+      int size = store.getSize();
+      for (int i = 0; i < size; i++) {
+         if (store.movings[i] != NONE) {
+            continue;
+         }
+
+         Direction step = field.nextStep(store.cols[i], store.rows[i]);
+         store.intents[i] = step != null ? (byte) step.ordinal() : NONE;
+      }
+   }
+
+}
@@ -21,6 +21,12 @@ public class Entity {
    private int shiftY;
    private int shiftX;
 
+   // Position at the previous tick (the drawing is interpolated from it).
+   private int previousWorldCol;
+   private int previousWorldRow;
+   private int previousShiftX;
+   private int previousShiftY;
+
    // Movement speed in pixels.
    private int speed;
 
@@ -39,4 +45,13 @@ public class Entity {
    // Screen frame counter
    private int currentDrawedFrame;
 
+
+   // Saves the position at the start of a tick.
+   public void storePreviousPosition() {
+      this.previousWorldCol = this.worldCol;
+      this.previousWorldRow = this.worldRow;
+      this.previousShiftX = this.shiftX;
+      this.previousShiftY = this.shiftY;
+   }
+
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import lombok.Getter;
+import meridian.light.LightSource;
+import meridian.main.GameParam;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Entities (monsters) as ids and packed component arrays: every component is a flat array
+ * indexed by the dense index of the entity, the living entities are 0..size-1 without
+ * holes, so the systems (MovementSystem, AnimationSystem, LightEmissionSystem) iterate
+ * them linearly. A destroyed entity is replaced by the last one (its components are moved).
+ *
+ * The id is the slot of the entity with its generation - the id of a destroyed entity is
+ * not valid any more, even if its slot is reused. Not thread safe: the entities are
+ * created and destroyed by the game thread (the systems may split their own iteration).
+ */
+public class EntityStore {
+
+   // No direction (not moving, no wanted direction) and no light.
+   public static final byte NONE = -1;
+   public static final int NO_LIGHT = -1;
+
+   public static final int DEFAULT_CAPACITY = 256;
+
+   // Slot bits of the ids - the rest is the generation of the slot.
+   private static final int SLOT_BITS = 20;
+   private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+   private static final int MAX_SLOTS = 1 << SLOT_BITS;
+
+   static final Direction[] DIRECTIONS = Direction.values();
+
+   // Living entities.
+   @Getter
+   private int size;
+
+   // Slots: dense index of the entity (-1: free) and the generation of the slot.
+   private int[] denseOfSlot;
+   private int[] generations;
+   private int[] freeSlots;
+   private int freeCount;
+   private int usedSlots;
+
+   // Dense components.
+   int[] ids;
+   int[] cols;
+   int[] rows;
+   int[] shiftXs;
+   int[] shiftYs;
+   int[] speeds;
+   // Direction ordinals: facing, current step and the wanted step (set by the AI).
+   byte[] facings;
+   byte[] movings;
+   byte[] intents;
+   // Animation: phase, ticks since the last phase change and the phases of the moving animation.
+   byte[] animationPhases;
+   byte[] animationTicks;
+   byte[] animationLengths;
+   // Light radius (NO_LIGHT: dark entity) and its source on the map.
+   int[] lightRadii;
+   LightSource[] lights;
+
+   // Sources of the destroyed glowing entities - the LightEmissionSystem removes them from the map.
+   final List<LightSource> releasedLights = new ArrayList<>();
+
+
+   public EntityStore() {
+      this(DEFAULT_CAPACITY);
+   }
+
+   public EntityStore(int capacity) {
+      capacity = Math.max(1, capacity);
+      this.denseOfSlot = new int[capacity];
+      this.generations = new int[capacity];
+      this.freeSlots = new int[capacity];
+      allocate(capacity);
+   }
+
+
+   /**
+    * Creates an entity standing in the middle of a cell.
+    *
+    * @param col column of the entity.
+    * @param row row of the entity.
+    * @param speed movement in pixels per tick (it must divide the half tile).
+    * @param animationLength phases of the moving animation (the first phase is the standing one).
+    * @return id of the entity.
+    */
+   public int create(int col, int row, int speed, int animationLength) {
+      if (speed <= 0 || (GameParam.TILE_SIZE / 2) % speed != 0) {
+         throw new IllegalStateException("Speed must divide the half tile: " + speed);
+      }
+
+      int slot;
+      if (this.freeCount > 0) {
+         slot = this.freeSlots[--this.freeCount];
+      }
+      else {
+         if (this.usedSlots == MAX_SLOTS) {
+            throw new IllegalStateException("Too many entities: " + MAX_SLOTS);
+         }
+         if (this.usedSlots == this.denseOfSlot.length) {
+            growSlots();
+         }
+         slot = this.usedSlots++;
+      }
+      if (this.size == this.ids.length) {
+         allocate(this.ids.length * 2);
+      }
+
+      int index = this.size++;
+      this.denseOfSlot[slot] = index;
+      this.ids[index] = this.generations[slot] << SLOT_BITS | slot;
+      this.cols[index] = col;
+      this.rows[index] = row;
+      this.shiftXs[index] = 0;
+      this.shiftYs[index] = 0;
+      this.speeds[index] = speed;
+      this.facings[index] = (byte) Direction.DOWN.ordinal();
+      this.movings[index] = NONE;
+      this.intents[index] = NONE;
+      this.animationPhases[index] = 0;
+      this.animationTicks[index] = 0;
+      this.animationLengths[index] = (byte) animationLength;
+      this.lightRadii[index] = NO_LIGHT;
+      this.lights[index] = null;
+      return this.ids[index];
+   }
+
+   public void destroy(int id) {
+      int index = indexOf(id);
+      int slot = id & SLOT_MASK;
+      if (this.lights[index] != null) {
+         this.releasedLights.add(this.lights[index]);
+      }
+
+      // The last entity takes the place of the destroyed one.
+      int last = --this.size;
+      if (index != last) {
+         moveEntity(last, index);
+         this.denseOfSlot[this.ids[index] & SLOT_MASK] = index;
+      }
+      this.lights[last] = null;
+
+      this.denseOfSlot[slot] = -1;
+      this.generations[slot] = (this.generations[slot] + 1) & (Integer.MAX_VALUE >>> SLOT_BITS);
+      this.freeSlots[this.freeCount++] = slot;
+   }
+
+   public boolean isAlive(int id) {
+      int slot = id & SLOT_MASK;
+      return id >= 0 && slot < this.usedSlots && this.denseOfSlot[slot] >= 0 &&
+            this.ids[this.denseOfSlot[slot]] == id;
+   }
+
+   // Dense index of a living entity - valid until an entity is destroyed.
+   public int indexOf(int id) {
+      if (!isAlive(id)) {
+         throw new IllegalStateException("Not living entity: " + id);
+      }
+      return this.denseOfSlot[id & SLOT_MASK];
+   }
+
+   public int idAt(int index) {
+      return this.ids[index];
+   }
+
+   public int getCol(int id) {
+      return this.cols[indexOf(id)];
+   }
+
+   public int getRow(int id) {
+      return this.rows[indexOf(id)];
+   }
+
+   public int getShiftX(int id) {
+      return this.shiftXs[indexOf(id)];
+   }
+
+   public int getShiftY(int id) {
+      return this.shiftYs[indexOf(id)];
+   }
+
+   public Direction getFacing(int id) {
+      return DIRECTIONS[this.facings[indexOf(id)]];
+   }
+
+   public boolean isMoving(int id) {
+      return this.movings[indexOf(id)] != NONE;
+   }
+
+   public int getAnimationPhase(int id) {
+      return this.animationPhases[indexOf(id)];
+   }
+
+   // Wanted direction of the entity - it steps cell by cell while it is set (null: stops at the next cell).
+   public void setIntent(int id, Direction direction) {
+      this.intents[indexOf(id)] = direction != null ? (byte) direction.ordinal() : NONE;
+   }
+
+   // Radius of the light of the entity (NO_LIGHT: it does not glow).
+   public void setLightRadius(int id, int radius) {
+      this.lightRadii[indexOf(id)] = radius;
+   }
+
+   public LightSource getLight(int id) {
+      return this.lights[indexOf(id)];
+   }
+
+   private void moveEntity(int from, int to) {
+      this.ids[to] = this.ids[from];
+      this.cols[to] = this.cols[from];
+      this.rows[to] = this.rows[from];
+      this.shiftXs[to] = this.shiftXs[from];
+      this.shiftYs[to] = this.shiftYs[from];
+      this.speeds[to] = this.speeds[from];
+      this.facings[to] = this.facings[from];
+      this.movings[to] = this.movings[from];
+      this.intents[to] = this.intents[from];
+      this.animationPhases[to] = this.animationPhases[from];
+      this.animationTicks[to] = this.animationTicks[from];
+      this.animationLengths[to] = this.animationLengths[from];
+      this.lightRadii[to] = this.lightRadii[from];
+      this.lights[to] = this.lights[from];
+   }
+
+   private void growSlots() {
+      int capacity = Math.min(MAX_SLOTS, this.denseOfSlot.length * 2);
+      this.denseOfSlot = Arrays.copyOf(this.denseOfSlot, capacity);
+      this.generations = Arrays.copyOf(this.generations, capacity);
+      this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+   }
+
+   private void allocate(int capacity) {
+      int length = this.ids != null ? this.size : 0;
+      this.ids = copy(this.ids, capacity, length);
+      this.cols = copy(this.cols, capacity, length);
+      this.rows = copy(this.rows, capacity, length);
+      this.shiftXs = copy(this.shiftXs, capacity, length);
+      this.shiftYs = copy(this.shiftYs, capacity, length);
+      this.speeds = copy(this.speeds, capacity, length);
+      this.facings = copy(this.facings, capacity, length);
+      this.movings = copy(this.movings, capacity, length);
+      this.intents = copy(this.intents, capacity, length);
+      this.animationPhases = copy(this.animationPhases, capacity, length);
+      this.animationTicks = copy(this.animationTicks, capacity, length);
+      this.animationLengths = copy(this.animationLengths, capacity, length);
+      this.lightRadii = copy(this.lightRadii, capacity, length);
+      this.lights = this.lights != null ? Arrays.copyOf(this.lights, capacity) : new LightSource[capacity];
+   }
+
+   private static int[] copy(int[] array, int capacity, int length) {
+      int[] copy = new int[capacity];
+      if (array != null) {
+         System.arraycopy(array, 0, copy, 0, length);
+      }
+      return copy;
+   }
+
+   private static byte[] copy(byte[] array, int capacity, int length) {
+      byte[] copy = new byte[capacity];
+      if (array != null) {
+         System.arraycopy(array, 0, copy, 0, length);
+      }
+      return copy;
+   }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import meridian.light.LightSource;
+import meridian.light.LightingEngine;
+
+import static meridian.entity.EntityStore.NO_LIGHT;
+
+
+/**
+ * Light sources of the glowing entities of an EntityStore - the sources follow the
+ * entities (the lighting engine calculates a source again only when it has moved), they
+ * are added when an entity starts to glow and removed when it stops or it is destroyed.
+ */
+public class LightEmissionSystem {
+
+   private final LightingEngine lightingEngine;
+
+
+   public LightEmissionSystem(LightingEngine lightingEngine) {
+      this.lightingEngine = lightingEngine;
+   }
+
+
+   // Synchronizes the light sources of the map with the entities.
+   public void update(EntityStore store) {
+      for (LightSource light : store.releasedLights) {
+         this.lightingEngine.removeLight(light);
+      }
+      store.releasedLights.clear();
+
+      int size = store.getSize();
+      int[] radii = store.lightRadii;
+      LightSource[] lights = store.lights;
+
+      for (int i = 0; i < size; i++) {
+         int radius = radii[i];
+         LightSource light = lights[i];
+         if (radius == NO_LIGHT) {
+            if (light != null) {
+               this.lightingEngine.removeLight(light);
+               lights[i] = null;
+            }
+         }
+         else if (light == null) {
+            lights[i] = new LightSource(store.cols[i], store.rows[i], radius);
+            this.lightingEngine.addLight(lights[i]);
+         }
+         else {
+            light.setCol(store.cols[i]);
+            light.setRow(store.rows[i]);
+            light.setRadius(radius);
+         }
+      }
+
+   }
+
+}
@@ -0,0 +1,168 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import meridian.main.GameParam;
+import meridian.map.CollisionChecker;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static meridian.entity.EntityStore.NONE;
+
+
+/**
+ * Moves the entities of an EntityStore cell by cell: an entity in the middle of a cell
+ * starts a step in its wanted direction if the collision checker lets it, and the step
+ * goes on until the middle of the next cell (the cell is changed at the half tile, as the
+ * player's one).
+ *
+ * The starting steps are checked by the batch of the collision checker (its solidity
+ * bitset) and every entity changes only its own components, so a large store is split
+ * between the workers of the pool.
+ */
+public class MovementSystem {
+
+   // Fewer entities are moved on the calling thread.
+   public static final int PARALLEL_THRESHOLD = 4096;
+
+   private static final int MIN_LEAF_SIZE = 1024;
+   private static final int HALF_TILE = GameParam.TILE_SIZE / 2;
+
+   private final CollisionChecker collisionChecker;
+   private final ForkJoinPool pool;
+
+   // Batch of the collision checks: wanted direction of the standing entities and the results.
+   private byte[] starts = new byte[0];
+   private boolean[] allowed = new boolean[0];
+
+
+   /**
+    * @param collisionChecker collision checker of the map.
+    * @param pool workers of the large stores, null: the entities are moved on the calling thread.
+    */
+   public MovementSystem(CollisionChecker collisionChecker, ForkJoinPool pool) {
+      this.collisionChecker = collisionChecker;
+      this.pool = pool;
+   }
+
+
+   // One tick of the movement of all entities.
+   public void update(EntityStore store) {
+      int size = store.getSize();
+      if (this.starts.length < size) {
+         this.starts = new byte[store.ids.length];
+         this.allowed = new boolean[store.ids.length];
+      }
+      // Built on the calling thread (if the map has changed).
+      this.collisionChecker.currentSolidity();
+
+      if (this.pool == null || size < PARALLEL_THRESHOLD) {
+         move(store, 0, size);
+         return;
+      }
+
+      int leafSize = Math.max(MIN_LEAF_SIZE, size / (this.pool.getParallelism() * 4));
+      this.pool.invoke(new MoveTask(store, 0, size, leafSize));
+   }
+
+   // Moves the entities from 'start' to 'end' exclusive.
+   private void move(EntityStore store, int start, int end) {
+      int[] cols = store.cols;
+      int[] rows = store.rows;
+      int[] shiftXs = store.shiftXs;
+      int[] shiftYs = store.shiftYs;
+      byte[] movings = store.movings;
+      byte[] intents = store.intents;
+
+      for (int i = start; i < end; i++) {
+         this.starts[i] = movings[i] == NONE ? intents[i] : NONE;
+      }
+      this.collisionChecker.canMove(start, end, cols, rows, shiftXs, shiftYs, this.starts, this.allowed);
+
+      for (int i = start; i < end; i++) {
+         int moving = movings[i];
+         if (moving == NONE) {
+            // Turns the standing entity to its wanted direction and starts the step if the way is free.
+            moving = this.starts[i];
+            if (moving == NONE) {
+               continue;
+            }
+            store.facings[i] = (byte) moving;
+            if (!this.allowed[i]) {
+               continue;
+            }
+            movings[i] = (byte) moving;
+         }
+
+         int speed = store.speeds[i];
+         int shiftX = shiftXs[i];
+         int shiftY = shiftYs[i];
+         switch (EntityStore.DIRECTIONS[moving]) {
+            case UP -> shiftY += speed;
+            case DOWN -> shiftY -= speed;
+            case LEFT -> shiftX += speed;
+            case RIGHT -> shiftX -= speed;
+         }
+
+         // Next cell at the half tile.
+         if (shiftY <= -HALF_TILE) {
+            shiftY += GameParam.TILE_SIZE;
+            rows[i]++;
+         }
+         else if (shiftY >= HALF_TILE) {
+            shiftY -= GameParam.TILE_SIZE;
+            rows[i]--;
+         }
+         if (shiftX <= -HALF_TILE) {
+            shiftX += GameParam.TILE_SIZE;
+            cols[i]++;
+         }
+         else if (shiftX >= HALF_TILE) {
+            shiftX -= GameParam.TILE_SIZE;
+            cols[i]--;
+         }
+
+         shiftXs[i] = shiftX;
+         shiftYs[i] = shiftY;
+         if (shiftX == 0 && shiftY == 0) {
+            movings[i] = NONE;
+         }
+      }
+
+   }
+
+   // Moves the entities from 'start' to 'end' exclusive - split in halves.
+   private class MoveTask extends RecursiveAction {
+
+      private static final long serialVersionUID = 1L;
+
+      private final transient EntityStore store;
+      private final int start;
+      private final int end;
+      private final int leafSize;
+
+      MoveTask(EntityStore store, int start, int end, int leafSize) {
+         this.store = store;
+         this.start = start;
+         this.end = end;
+         this.leafSize = leafSize;
+      }
+
+      @Override
+      protected void compute() {
+         if (this.end - this.start <= this.leafSize) {
+            move(this.store, this.start, this.end);
+            return;
+         }
+
+         int middle = (this.start + this.end) >>> 1;
+         invokeAll(new MoveTask(this.store, this.start, middle, this.leafSize),
+               new MoveTask(this.store, middle, this.end, this.leafSize));
+      }
+
+   }
+
+}
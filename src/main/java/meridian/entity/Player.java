@@ -6,8 +6,9 @@ package meridian.entity;
 
 import lombok.Getter;
 import meridian.main.GameParam;
-import meridian.main.KeyHandler;
+import meridian.main.InputState;
 import meridian.map.CollisionChecker;
+import meridian.tile.TileManager;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
@@ -26,9 +27,17 @@ public class Player extends Entity {
    // controlling the animation speed
    private static final int ANIM_SPEED = 10;
 
-   private final KeyHandler keyH;
+   // Phases of the animation rows: normal movement (rows 0 - 3) and attack movement (rows 4 - 7).
+   private static final int NORMAL_MOVE_PHASES = 5;
+   private static final int ATTACK_MOVE_PHASES = 6;
+   private static final int ATTACK_ROW_OFFSET = 4;
+
+   private final InputState keyH;
    private final CollisionChecker collisionChecker;
 
+   // False: headless player - no images, it cannot be drawn.
+   private final boolean graphics;
+
    private boolean activeMoveLeft;
    private boolean activeMoveRight;
    private boolean activeMoveUp;
@@ -38,46 +47,71 @@ public class Player extends Entity {
 
 
    // Constructor.
-   public Player(KeyHandler kh, CollisionChecker cc) {
+   public Player(InputState kh, CollisionChecker cc) {
+      this(kh, cc, true);
+   }
+
+   /**
+    * @param kh pressed controls.
+    * @param cc collision checker of the map.
+    * @param graphics false: the images are not loaded (headless simulation).
+    */
+   public Player(InputState kh, CollisionChecker cc, boolean graphics) {
       this.keyH = kh;
       this.collisionChecker = cc;
+      this.graphics = graphics;
       this.init();
    }
 
 
    public void init() {
+      if (this.graphics) {
+         loadImages();
+      }
+
+      // Set movement (1 * 3 pixel)
+      setSpeed(GameParam.PIXEL_SCALE);
+
+      // Set first appearance
+      setDirection(Direction.DOWN);
+      setAnimationPhaseIndex(0);
+      setCurrentDrawedFrame(0);
+      setAnimationRowOffset(0);
+
+   }
 
+   private void loadImages() {
       try {
          // Get tile set image from file.
          BufferedImage tileSet = ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream("/players/player-set-börg.png")));
          setImages(new BufferedImage[8][]);
 
          // Get images of the normal movement phases - each row contains 5 (size: 16*16px) pics.
-         for (int row = 0; row < 4; row++) {
+         for (int row = 0; row < ATTACK_ROW_OFFSET; row++) {
 
-            BufferedImage[] pics = new BufferedImage[5];
+            BufferedImage[] pics = new BufferedImage[NORMAL_MOVE_PHASES];
 
-            for (int current = 0; current < 5; current++) {
-               pics[current] = tileSet.getSubimage(
+            for (int current = 0; current < NORMAL_MOVE_PHASES; current++) {
+               pics[current] = scaleImage(tileSet.getSubimage(
                      GameParam.ORIGINAL_TILE_SIZE * current,
                      GameParam.ORIGINAL_TILE_SIZE * row,
                      GameParam.ORIGINAL_TILE_SIZE, GameParam.ORIGINAL_TILE_SIZE
-               );
+               ));
 
             }
             getImages()[row] = pics;
 
          }
          // Get images of attack movement phases - each row contains 6 (size: 16*16px) images.
-         for (int row = 4; row < 8; row++) {
+         for (int row = ATTACK_ROW_OFFSET; row < ATTACK_ROW_OFFSET * 2; row++) {
 
-            BufferedImage[] pics = new BufferedImage[6];
-            for (int current = 0; current < 6; current++) {
-               pics[current] = tileSet.getSubimage(
+            BufferedImage[] pics = new BufferedImage[ATTACK_MOVE_PHASES];
+            for (int current = 0; current < ATTACK_MOVE_PHASES; current++) {
+               pics[current] = scaleImage(tileSet.getSubimage(
                      GameParam.ORIGINAL_TILE_SIZE * current,
                      GameParam.ORIGINAL_TILE_SIZE * row,
                      GameParam.ORIGINAL_TILE_SIZE, GameParam.ORIGINAL_TILE_SIZE
-               );
+               ));
 
             }
             getImages()[row] = pics;
@@ -88,18 +122,23 @@ public class Player extends Entity {
          throw new IllegalStateException("Cannot load player' graphics" + e);
       }
 
-      // Set movement (1 * 3 pixel)
-      setSpeed(GameParam.PIXEL_SCALE);
-
-      // Set first appearance
-      setDirection(Direction.DOWN);
-      setAnimationPhaseIndex(0);
-      setCurrentDrawedFrame(0);
-      setAnimationRowOffset(0);
+   }
 
+   // Copy of the image in screen tile size and screen compatible format - drawing it is a plain copy.
+   private static BufferedImage scaleImage(BufferedImage image) {
+      BufferedImage scaled = TileManager.createCompatibleImage(GameParam.TILE_SIZE, GameParam.TILE_SIZE,
+            Transparency.TRANSLUCENT);
+      Graphics2D g2 = scaled.createGraphics();
+      g2.drawImage(image, 0, 0, GameParam.TILE_SIZE, GameParam.TILE_SIZE, null);
+      g2.dispose();
+      return scaled;
    }
 
    public void update() {
+      storePreviousPosition();
+
+      // Animation phase of the last tick's movement.
+      advanceAnimation();
 
       // Update player's VERTICAL position.
       checkMovingVertically();
@@ -114,42 +153,42 @@ public class Player extends Entity {
    }
 
    public void draw(Graphics2D g2) {
+      if (!this.graphics) {
+         throw new IllegalStateException("Headless player cannot be drawn");
+      }
 
       BufferedImage image = null;
-      int currentAnimRowLength = 0;
       int animPhaseIndex = getAnimationPhaseIndex();
       int rowOffSet = getAnimationRowOffset();
-      int drawedFrame = getCurrentDrawedFrame();
 
       // Get current image of Player's character.
       switch (getDirection()) {
          case DOWN -> {
             image = getImages()[rowOffSet][animPhaseIndex];
-            currentAnimRowLength = getImages()[rowOffSet].length;
          }
          case UP -> {
             image = getImages()[rowOffSet + 1][animPhaseIndex];
-            currentAnimRowLength = getImages()[rowOffSet].length;
          }
          case LEFT -> {
             image = getImages()[rowOffSet + 2][animPhaseIndex];
-            currentAnimRowLength = getImages()[rowOffSet].length;
          }
          case RIGHT -> {
             image = getImages()[rowOffSet + 3][animPhaseIndex];
-            currentAnimRowLength = getImages()[rowOffSet].length;
          }
 
       }
 
       // show Player's character
-      float opacity = 1.0f;
-      g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
-      g2.drawImage(image, DRAWING_POSITION_X, DRAWING_POSITION_Y,
-            GameParam.TILE_SIZE, GameParam.TILE_SIZE, null);
+      g2.setComposite(AlphaComposite.SrcOver);
+      g2.drawImage(image, DRAWING_POSITION_X, DRAWING_POSITION_Y, null);
 
+   }
+
+   private void advanceAnimation() {
+      int drawedFrame = getCurrentDrawedFrame();
+      int currentAnimRowLength = getAnimationRowOffset() >= ATTACK_ROW_OFFSET ? ATTACK_MOVE_PHASES : NORMAL_MOVE_PHASES;
 
-      // control of animation phase changes -- 60 fps screen is too fast for anim speed
+      // control of animation phase changes -- 60 ticks per second is too fast for anim speed
       drawedFrame++;
       if (drawedFrame > ANIM_SPEED) {
 
@@ -0,0 +1,142 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import lombok.Getter;
+import lombok.Setter;
+import meridian.entity.Player;
+import meridian.main.GameParam;
+import meridian.main.InputScript;
+import meridian.main.ScriptedInput;
+import meridian.map.ChunkSource;
+import meridian.map.CollisionChecker;
+import meridian.map.Map;
+import meridian.map.MapManager;
+import meridian.map.ShadeMatrix;
+import meridian.tile.TileManager;
+
+import java.util.List;
+
+
+/**
+ * The game without window, images and sounds - the ticks (movement, collision and the
+ * visibility of the cells) run as fast as they can, driven by scripted controls. Used by the
+ * bot tests and the balance simulations.
+ *
+ * The drawn darkness of the cells is not updated (only the visible opacity), nothing is
+ * drawn, so it runs on a headless server (java.awt.headless=true) as well. The lights are
+ * calculated on the calling thread - the parallel runs are the games themselves (see
+ * SimulationRunner).
+ */
+@Getter
+public class HeadlessGame {
+
+   // Tile properties only.
+   private final TileManager tileManager;
+
+   private final MapManager mapManager;
+   private final CollisionChecker collisionChecker;
+   private final ScriptedInput input = new ScriptedInput();
+   private final Player player;
+
+   // False: only movement and collision, the visibility of the cells is not calculated.
+   @Setter
+   private boolean lighting = true;
+
+   // Number of the ticks since the map was loaded.
+   private long ticks;
+
+
+   public HeadlessGame() {
+      this(TileManager.withoutGraphics(), ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW),
+            MapManager.readMapList());
+   }
+
+   /**
+    * The arguments are only read - they can be shared by the games.
+    *
+    * @param tileManager tiles of the loaded maps (with their tile set already loaded if it is shared).
+    * @param shadeMatrix shade matrix of the sight.
+    * @param maps loadable maps.
+    */
+   public HeadlessGame(TileManager tileManager, ShadeMatrix shadeMatrix, List<Map> maps) {
+      this.tileManager = tileManager;
+      this.mapManager = new MapManager(tileManager, shadeMatrix, maps, null);
+      this.collisionChecker = new CollisionChecker(this.mapManager);
+      this.player = new Player(this.input, this.collisionChecker, false);
+   }
+
+
+   /**
+    * Loads a map of the map list and places the player on it.
+    *
+    * @param mapId id of the map.
+    * @param playerCol column of the player.
+    * @param playerRow row of the player.
+    */
+   public void loadMap(int mapId, int playerCol, int playerRow) {
+      Map loaded = null;
+      for (Map map : this.mapManager.getMaps()) {
+         if (map.getId() == mapId) {
+            loaded = map;
+         }
+      }
+      if (loaded == null) {
+         throw new IllegalStateException("Unknown map id: " + mapId);
+      }
+
+      loadMap(loaded, MapManager.openSource(loaded));
+      placePlayer(playerCol, playerRow);
+   }
+
+   /**
+    * Loads a map from its opened tile ids (shared by the games) - the player must be placed after it.
+    *
+    * @param map loaded map.
+    * @param source tile ids of the map.
+    */
+   public void loadMap(Map map, ChunkSource source) {
+      this.mapManager.loadMap(map, source);
+   }
+
+   // Places the player on the loaded map and restarts the ticks.
+   public void placePlayer(int playerCol, int playerRow) {
+      this.player.init();
+      this.player.setWorldCol(playerCol);
+      this.player.setWorldRow(playerRow);
+      this.player.setShiftX(0);
+      this.player.setShiftY(0);
+      this.player.storePreviousPosition();
+      this.input.setButtons(0);
+      this.ticks = 0;
+
+      if (this.lighting) {
+         this.mapManager.updateVisibility(this.player);
+      }
+   }
+
+   // One tick of the game with the current controls.
+   public void tick() {
+      this.player.update();
+      if (this.lighting) {
+         this.mapManager.updateVisibility(this.player);
+      }
+      this.ticks++;
+   }
+
+   /**
+    * Runs ticks with scripted controls.
+    *
+    * @param count number of the ticks.
+    * @param script controls of the ticks (by the tick number since the map was loaded).
+    */
+   public void run(long count, InputScript script) {
+      for (long i = 0; i < count; i++) {
+         this.input.setButtons(script.buttonsAt(this.ticks));
+         tick();
+      }
+   }
+
+}
@@ -0,0 +1,49 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import meridian.main.InputScript;
+import meridian.main.InputState;
+import meridian.main.SplitMix64;
+
+
+/**
+ * Random controls of a seed: a direction (straight, diagonal or standing) is held for a
+ * segment of ticks. The controls of a tick depend only on the seed and the tick, so the
+ * same run can be repeated.
+ */
+public class RandomWalkScript implements InputScript {
+
+   private static final int[] MOVES = {
+         0,
+         InputState.LEFT, InputState.RIGHT, InputState.UP, InputState.DOWN,
+         InputState.LEFT | InputState.UP, InputState.LEFT | InputState.DOWN,
+         InputState.RIGHT | InputState.UP, InputState.RIGHT | InputState.DOWN
+   };
+
+   private final long seed;
+   private final int segmentTicks;
+
+
+   /**
+    * @param seed seed of the walk.
+    * @param segmentTicks ticks of holding a direction.
+    */
+   public RandomWalkScript(long seed, int segmentTicks) {
+      if (segmentTicks < 1) {
+         throw new IllegalStateException("Invalid segment length: " + segmentTicks);
+      }
+      this.seed = seed;
+      this.segmentTicks = segmentTicks;
+   }
+
+
+   @Override
+   public int buttonsAt(long tick) {
+      long hash = SplitMix64.mix(this.seed * SplitMix64.GOLDEN_GAMMA + tick / this.segmentTicks);
+      return MOVES[(int) Long.remainderUnsigned(hash, MOVES.length)];
+   }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import lombok.Getter;
+
+
+// Outcome of a SimulationSession.
+@Getter
+public class SessionResult {
+
+   private final int mapId;
+   private final long seed;
+   private final long ticks;
+
+   private final int startCol;
+   private final int startRow;
+   private final int endCol;
+   private final int endRow;
+
+   // Different cells stepped on by the player.
+   private final int visitedCells;
+
+   // Ticks when a control was pressed, but the player did not move.
+   private final long blockedTicks;
+
+   // Running time of the session.
+   private final long nanos;
+
+
+   public SessionResult(int mapId, long seed, long ticks, int startCol, int startRow, int endCol, int endRow,
+                        int visitedCells, long blockedTicks, long nanos) {
+      this.mapId = mapId;
+      this.seed = seed;
+      this.ticks = ticks;
+      this.startCol = startCol;
+      this.startRow = startRow;
+      this.endCol = endCol;
+      this.endRow = endRow;
+      this.visitedCells = visitedCells;
+      this.blockedTicks = blockedTicks;
+      this.nanos = nanos;
+   }
+
+}
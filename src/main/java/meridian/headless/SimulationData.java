@@ -0,0 +1,82 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import lombok.Getter;
+import meridian.main.GameParam;
+import meridian.map.ChunkSource;
+import meridian.map.Map;
+import meridian.map.MapManager;
+import meridian.map.ShadeMatrix;
+import meridian.tile.TileManager;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Read only data of the headless games, loaded once and shared by the parallel runs: the
+ * map list, the shade matrix, the tile sets (properties only) and the parsed tile ids of
+ * the maps. The tile sets and the maps are loaded at their first use.
+ */
+public class SimulationData {
+
+   @Getter
+   private final List<Map> maps;
+
+   @Getter
+   private final ShadeMatrix shadeMatrix;
+
+   private final java.util.Map<String, TileManager> tileSets = new ConcurrentHashMap<>();
+   private final java.util.Map<Integer, ChunkSource> sources = new ConcurrentHashMap<>();
+
+
+   public SimulationData() {
+      this(MapManager.readMapList(), ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW));
+   }
+
+   public SimulationData(List<Map> maps, ShadeMatrix shadeMatrix) {
+      this.maps = List.copyOf(maps);
+      this.shadeMatrix = shadeMatrix;
+   }
+
+
+   public Map getMap(int mapId) {
+      for (Map map : this.maps) {
+         if (map.getId() == mapId) {
+            return map;
+         }
+      }
+      throw new IllegalStateException("Unknown map id: " + mapId);
+   }
+
+   // Tiles of a tile set - loaded before it is shared, so the games only read it.
+   public TileManager getTileManager(String tileSetName) {
+      return this.tileSets.computeIfAbsent(tileSetName, name -> {
+         TileManager tileManager = TileManager.withoutGraphics();
+         tileManager.loadTiles(name);
+         return tileManager;
+      });
+   }
+
+   // Tile ids of a map - parsed (or mapped) once.
+   public ChunkSource getSource(Map map) {
+      return this.sources.computeIfAbsent(map.getId(), id -> MapManager.openSource(map));
+   }
+
+   /**
+    * Creates a game with the map loaded (the player is not placed yet).
+    *
+    * @param mapId id of the map.
+    * @return new game on the map.
+    */
+   public HeadlessGame createGame(int mapId) {
+      Map map = getMap(mapId);
+      HeadlessGame game = new HeadlessGame(getTileManager(map.getTileSetName()), this.shadeMatrix, this.maps);
+      game.loadMap(map, getSource(map));
+      return game;
+   }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Aggregated statistics of the sessions of a SimulationRunner run - per map and in total.
+ */
+public class SimulationReport {
+
+   // Statistics of the sessions of a map.
+   @Getter
+   public static class MapStatistics {
+
+      private final int mapId;
+      private int sessions;
+      private long ticks;
+      private long blockedTicks;
+      private long visitedCells;
+      private int minVisitedCells = Integer.MAX_VALUE;
+      private int maxVisitedCells;
+
+      MapStatistics(int mapId) {
+         this.mapId = mapId;
+      }
+
+      void add(SessionResult result) {
+         this.sessions++;
+         this.ticks += result.getTicks();
+         this.blockedTicks += result.getBlockedTicks();
+         this.visitedCells += result.getVisitedCells();
+         this.minVisitedCells = Math.min(this.minVisitedCells, result.getVisitedCells());
+         this.maxVisitedCells = Math.max(this.maxVisitedCells, result.getVisitedCells());
+      }
+
+      public double getAverageVisitedCells() {
+         return this.sessions > 0 ? (double) this.visitedCells / this.sessions : 0.0;
+      }
+
+      // Part of the ticks when the player was blocked (0 - 1).
+      public double getBlockedRatio() {
+         return this.ticks > 0 ? (double) this.blockedTicks / this.ticks : 0.0;
+      }
+
+   }
+
+   @Getter
+   private final List<SessionResult> results;
+
+   // Wall clock time of the run.
+   @Getter
+   private final long nanos;
+
+   private final Map<Integer, MapStatistics> mapStatistics = new TreeMap<>();
+
+   @Getter
+   private long ticks;
+
+
+   public SimulationReport(List<SessionResult> results, long nanos) {
+      this.results = Collections.unmodifiableList(results);
+      this.nanos = nanos;
+
+      for (SessionResult result : results) {
+         this.mapStatistics.computeIfAbsent(result.getMapId(), MapStatistics::new).add(result);
+         this.ticks += result.getTicks();
+      }
+   }
+
+
+   // Statistics by map id (in the order of the ids).
+   public Map<Integer, MapStatistics> getMapStatistics() {
+      return Collections.unmodifiableMap(this.mapStatistics);
+   }
+
+   public double getTicksPerMillisecond() {
+      return this.nanos > 0 ? this.ticks / (this.nanos / 1_000_000.0) : 0.0;
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("%d sessions, %d ticks in %.1f ms (%.0f ticks/ms)%n",
+            this.results.size(), this.ticks, this.nanos / 1_000_000.0, getTicksPerMillisecond()));
+      sb.append(String.format("%5s %9s %12s %14s %10s %10s%n", "map", "sessions", "ticks", "avg visited", "min-max", "blocked"));
+      for (MapStatistics statistics : this.mapStatistics.values()) {
+         sb.append(String.format("%5d %9d %12d %14.1f %10s %9.1f%%%n", statistics.getMapId(), statistics.getSessions(),
+               statistics.getTicks(), statistics.getAverageVisitedCells(),
+               statistics.getMinVisitedCells() + "-" + statistics.getMaxVisitedCells(), statistics.getBlockedRatio() * 100.0));
+      }
+      return sb.toString();
+   }
+
+}
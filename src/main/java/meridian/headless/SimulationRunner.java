@@ -0,0 +1,167 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import lombok.Getter;
+import meridian.entity.Player;
+import meridian.main.InputScript;
+import meridian.map.Map;
+import meridian.map.MapGrid;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+/**
+ * Runs many independent headless games in parallel (balance tests of the dungeons). The
+ * sessions are tasks of a work-stealing pool - every session has its own game (grid, player,
+ * lights), while the read only data (map list, shade matrix, tile sets, tile ids of the maps)
+ * is loaded once in the SimulationData and shared.
+ *
+ * The player of a session starts on a random free cell of the map (by the seed of the session),
+ * so the results of a session do not depend on the thread or the order of the sessions.
+ *
+ * Run: java -Djava.awt.headless=true meridian.headless.SimulationRunner [sessions] [ticks] [threads]
+ */
+public class SimulationRunner implements AutoCloseable {
+
+   // Tries of finding a free start cell.
+   private static final int START_CELL_TRIES = 10_000;
+
+   @Getter
+   private final SimulationData data;
+
+   private final ForkJoinPool pool;
+
+
+   public SimulationRunner(SimulationData data) {
+      this(data, Runtime.getRuntime().availableProcessors());
+   }
+
+   public SimulationRunner(SimulationData data, int parallelism) {
+      this.data = data;
+      this.pool = new ForkJoinPool(parallelism);
+   }
+
+
+   public int getParallelism() {
+      return this.pool.getParallelism();
+   }
+
+   /**
+    * Runs the sessions in parallel.
+    *
+    * @param sessions runs of the games.
+    * @return results in the order of the sessions with their statistics.
+    */
+   public SimulationReport run(List<SimulationSession> sessions) {
+      long start = System.nanoTime();
+
+      List<ForkJoinTask<SessionResult>> tasks = new ArrayList<>(sessions.size());
+      for (SimulationSession session : sessions) {
+         tasks.add(this.pool.submit(() -> runSession(session)));
+      }
+
+      List<SessionResult> results = new ArrayList<>(sessions.size());
+      for (ForkJoinTask<SessionResult> task : tasks) {
+         results.add(task.join());
+      }
+      return new SimulationReport(results, System.nanoTime() - start);
+   }
+
+   /**
+    * Runs a session on the calling thread.
+    *
+    * @param session run of a game.
+    * @return result of the run.
+    */
+   public SessionResult runSession(SimulationSession session) {
+      long start = System.nanoTime();
+
+      HeadlessGame game = this.data.createGame(session.getMapId());
+      MapGrid grid = game.getMapManager().getGrid();
+      int startCell = findStartCell(grid, session.getSeed());
+      int startCol = startCell % grid.getWidth();
+      int startRow = startCell / grid.getWidth();
+      game.placePlayer(startCol, startRow);
+
+      Player player = game.getPlayer();
+      BitSet visited = new BitSet(grid.getWidth() * grid.getHeight());
+      visited.set(startCell);
+      long blockedTicks = 0;
+
+      InputScript script = session.getScript();
+      for (long tick = 0; tick < session.getTicks(); tick++) {
+         int col = player.getWorldCol();
+         int row = player.getWorldRow();
+         int shiftX = player.getShiftX();
+         int shiftY = player.getShiftY();
+
+         int buttons = script.buttonsAt(tick);
+         game.getInput().setButtons(buttons);
+         game.tick();
+
+         boolean moved = col != player.getWorldCol() || row != player.getWorldRow() ||
+               shiftX != player.getShiftX() || shiftY != player.getShiftY();
+         if (buttons != 0 && !moved) {
+            blockedTicks++;
+         }
+         visited.set(player.getWorldRow() * grid.getWidth() + player.getWorldCol());
+      }
+
+      return new SessionResult(session.getMapId(), session.getSeed(), session.getTicks(), startCol, startRow,
+            player.getWorldCol(), player.getWorldRow(), visited.cardinality(), blockedTicks, System.nanoTime() - start);
+   }
+
+   // Random walkable cell of the map (index in row order).
+   private static int findStartCell(MapGrid grid, long seed) {
+      SplittableRandom random = new SplittableRandom(seed);
+      for (int i = 0; i < START_CELL_TRIES; i++) {
+         int col = random.nextInt(grid.getWidth());
+         int row = random.nextInt(grid.getHeight());
+         if (grid.getTileId(col, row) != MapGrid.VOID_CELL_ID && !grid.isSolid(col, row)) {
+            return row * grid.getWidth() + col;
+         }
+      }
+      throw new IllegalStateException("No free start cell found on the map");
+   }
+
+   @Override
+   public void close() {
+      this.pool.shutdown();
+   }
+
+   /**
+    * Sessions spread over the maps of the map list with consecutive seeds.
+    *
+    * @param maps maps of the sessions.
+    * @param count number of the sessions.
+    * @param ticks length of the sessions.
+    * @return the sessions.
+    */
+   public static List<SimulationSession> sessionsOf(List<Map> maps, int count, long ticks) {
+      List<SimulationSession> sessions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         sessions.add(new SimulationSession(maps.get(i % maps.size()).getId(), i + 1L, ticks));
+      }
+      return sessions;
+   }
+
+   public static void main(String[] args) {
+      int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+      long ticks = args.length > 1 ? Long.parseLong(args[1]) : 36_000;
+      int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+      SimulationData data = new SimulationData();
+      try (SimulationRunner runner = new SimulationRunner(data, threads)) {
+         System.out.print(runner.run(sessionsOf(data.getMaps(), sessions, ticks)));
+      }
+   }
+
+}
@@ -0,0 +1,35 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import lombok.Getter;
+import meridian.main.InputScript;
+
+
+// One run of the SimulationRunner: a map, a seed (start place and controls) and a length.
+@Getter
+public class SimulationSession {
+
+   // Ticks of holding a direction by the random walk.
+   public static final int DEFAULT_SEGMENT_TICKS = 48;
+
+   private final int mapId;
+   private final long seed;
+   private final long ticks;
+   private final InputScript script;
+
+
+   public SimulationSession(int mapId, long seed, long ticks) {
+      this(mapId, seed, ticks, new RandomWalkScript(seed, DEFAULT_SEGMENT_TICKS));
+   }
+
+   public SimulationSession(int mapId, long seed, long ticks, InputScript script) {
+      this.mapId = mapId;
+      this.seed = seed;
+      this.ticks = ticks;
+      this.script = script;
+   }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+
+/**
+ * Light values of a rectangular window of the World Map cells in a flat array
+ * (indexed by 'localRow * width + localCol').
+ */
+public class LightBuffer {
+
+   // World Map cell of the top-left corner.
+   @Getter
+   private int originCol;
+   @Getter
+   private int originRow;
+
+   @Getter
+   private final int width;
+   @Getter
+   private final int height;
+
+   @Getter
+   private final float[] values;
+
+
+   public LightBuffer(int width, int height) {
+      this.width = width;
+      this.height = height;
+      this.values = new float[width * height];
+   }
+
+
+   public void moveTo(int col, int row) {
+      this.originCol = col;
+      this.originRow = row;
+   }
+
+   public void fill(float value) {
+      Arrays.fill(this.values, value);
+   }
+
+   public boolean contains(int col, int row) {
+      int localCol = col - this.originCol;
+      int localRow = row - this.originRow;
+      return localCol >= 0 && localRow >= 0 && localCol < this.width && localRow < this.height;
+   }
+
+   public boolean intersects(int firstCol, int firstRow, int lastCol, int lastRow) {
+      return firstCol < this.originCol + this.width && lastCol >= this.originCol &&
+            firstRow < this.originRow + this.height && lastRow >= this.originRow;
+   }
+
+   // Index of a World Map cell - the cell must be inside the window.
+   public int index(int col, int row) {
+      return (row - this.originRow) * this.width + (col - this.originCol);
+   }
+
+   public float get(int col, int row) {
+      return this.values[index(col, row)];
+   }
+
+   public void set(int col, int row, float value) {
+      this.values[index(col, row)] = value;
+   }
+
+   /**
+    * Merges an other buffer into this by keeping the brighter value of the common cells.
+    *
+    * @param other buffer of any position and size.
+    */
+   public void maxMerge(LightBuffer other) {
+      int firstCol = Math.max(this.originCol, other.originCol);
+      int firstRow = Math.max(this.originRow, other.originRow);
+      int endCol = Math.min(this.originCol + this.width, other.originCol + other.width);
+      int endRow = Math.min(this.originRow + this.height, other.originRow + other.height);
+
+      for (int row = firstRow; row < endRow; row++) {
+         int index = index(firstCol, row);
+         int otherIndex = other.index(firstCol, row);
+         for (int col = firstCol; col < endCol; col++, index++, otherIndex++) {
+            if (other.values[otherIndex] > this.values[index]) {
+               this.values[index] = other.values[otherIndex];
+            }
+         }
+      }
+
+   }
+
+}
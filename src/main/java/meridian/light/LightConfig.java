@@ -0,0 +1,20 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+@Getter
+@Setter
+public class LightConfig {
+
+   private int col;
+   private int row;
+   private int radius;
+   private String description;
+
+}
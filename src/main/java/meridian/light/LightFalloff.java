@@ -0,0 +1,84 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import lombok.Getter;
+import meridian.map.FieldOfView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Pre-calculated opacity of the cells around a light by their relative position - the
+ * light is full in the radius and fades out by 0.4 per cell after it. The tables are
+ * immutable and shared by all lights of the same radius.
+ */
+public class LightFalloff {
+
+   private static final Map<Integer, LightFalloff> TABLES = new ConcurrentHashMap<>();
+
+   @Getter
+   private final int radius;
+
+   // Farthest lit offset from the light (on both axes).
+   @Getter
+   private final int extent;
+
+   // Opacity by '(dy + extent) * size + (dx + extent)'.
+   private final float[] opacities;
+   private final int size;
+
+
+   private LightFalloff(int radius) {
+      this.radius = radius;
+      // The opacity is 0 from the distance of 'radius + 2.5'.
+      this.extent = Math.max(0, radius + 3);
+      this.size = this.extent * 2 + 1;
+      this.opacities = new float[this.size * this.size];
+
+      for (int dy = -this.extent; dy <= this.extent; dy++) {
+         for (int dx = -this.extent; dx <= this.extent; dx++) {
+            float distance = (float) Math.sqrt(0.0 + dx * dx + dy * dy);
+            this.opacities[(dy + this.extent) * this.size + (dx + this.extent)] = calculateOpacity(radius, distance);
+         }
+      }
+
+   }
+
+
+   public static LightFalloff forRadius(int radius) {
+      return TABLES.computeIfAbsent(radius, LightFalloff::new);
+   }
+
+   private static float calculateOpacity(int radius, float distance) {
+      float result = (distance * -0.4f) + 1.0f + radius * 0.4f;
+      if (result < 0.0f) {
+         result = 0.0f;
+      }
+      if (result > 1.0f) {
+         result = 1.0f;
+      }
+      return result;
+   }
+
+   // Shadows in the lit area - one cell bigger reach keeps the mirrored darkeners of the edge.
+   public FieldOfView getFieldOfView(String algorithm) {
+      return FieldOfView.forReach(algorithm, this.extent + 1, this.extent + 1);
+   }
+
+   /**
+    * @param dx column offset from the light.
+    * @param dy row offset from the light.
+    * @return opacity of the cell lit only by this light (without occlusion).
+    */
+   public float opacityAt(int dx, int dy) {
+      if (dx < -this.extent || dx > this.extent || dy < -this.extent || dy > this.extent) {
+         return 0.0f;
+      }
+      return this.opacities[(dy + this.extent) * this.size + (dx + this.extent)];
+   }
+
+}
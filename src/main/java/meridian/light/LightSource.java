@@ -0,0 +1,147 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import lombok.Getter;
+import lombok.Setter;
+import meridian.map.FieldOfView;
+import meridian.map.MapGrid;
+
+
+/**
+ * A light on the World Map (torch, glowing monster, spell effect...). The light of the
+ * source with its shadows is calculated into its own buffer and kept until the source
+ * moves, its radius changes or the map changes - static lights are calculated only once.
+ * The shadows are calculated by the field of view of the light radius.
+ */
+public class LightSource {
+
+   // Position on the world map by tilesize.
+   @Getter
+   @Setter
+   private int col;
+   @Getter
+   @Setter
+   private int row;
+
+   // Fully lit distance in cells (the light fades out in 2.5 cells after it).
+   @Getter
+   @Setter
+   private int radius;
+
+   // State of the last seen source.
+   private int seenCol;
+   private int seenRow;
+   private int seenRadius;
+   private MapGrid seenGrid;
+   private int seenVersion;
+
+   // Calculated light of the source (valid for the seen state).
+   @Getter
+   private LightBuffer contribution;
+   private boolean contributionValid;
+
+
+   public LightSource(int col, int row, int radius) {
+      this.col = col;
+      this.row = row;
+      this.radius = radius;
+   }
+
+
+   /**
+    * Compares the source with its last seen state and updates that.
+    *
+    * @param grid current World Map cells.
+    * @return true if the source was moved or changed since the last check.
+    */
+   boolean checkChanged(MapGrid grid) {
+      if (this.seenGrid == grid && this.seenVersion == grid.getVersion() &&
+            this.seenCol == this.col && this.seenRow == this.row && this.seenRadius == this.radius) {
+         return false;
+      }
+
+      this.seenCol = this.col;
+      this.seenRow = this.row;
+      this.seenRadius = this.radius;
+      this.seenGrid = grid;
+      this.seenVersion = grid.getVersion();
+      this.contributionValid = false;
+      return true;
+   }
+
+   // The light must be calculated again (the shadows are calculated by an other algorithm).
+   void invalidate() {
+      this.contributionValid = false;
+   }
+
+   boolean isContributionValid() {
+      return this.contributionValid;
+   }
+
+   // Lit area of the source - first col, first row, last col, last row.
+   int firstCol() {
+      return this.col - extent(this.radius);
+   }
+
+   int firstRow() {
+      return this.row - extent(this.radius);
+   }
+
+   int lastCol() {
+      return this.col + extent(this.radius);
+   }
+
+   int lastRow() {
+      return this.row + extent(this.radius);
+   }
+
+   // Farthest lit cell of the seen state.
+   int extent() {
+      return extent(this.seenRadius);
+   }
+
+   // Shadows of the seen state - the cells in its read range are read from the map.
+   FieldOfView fieldOfView(String algorithm) {
+      return LightFalloff.forRadius(this.seenRadius).getFieldOfView(algorithm);
+   }
+
+   private static int extent(int radius) {
+      return LightFalloff.forRadius(radius).getExtent();
+   }
+
+   /**
+    * Calculates the light of the source with the shadows of the walls (if the seen state
+    * has not been calculated yet).
+    *
+    * @param grid current World Map cells.
+    * @param algorithm field of view algorithm of the shadows.
+    */
+   void updateContribution(MapGrid grid, String algorithm) {
+      if (this.contributionValid) {
+         return;
+      }
+
+      LightFalloff falloff = LightFalloff.forRadius(this.seenRadius);
+      int size = falloff.getExtent() * 2 + 1;
+      if (this.contribution == null || this.contribution.getWidth() != size) {
+         this.contribution = new LightBuffer(size, size);
+      }
+      this.contribution.moveTo(this.seenCol - falloff.getExtent(), this.seenRow - falloff.getExtent());
+
+      float[] values = this.contribution.getValues();
+      for (int localRow = 0; localRow < size; localRow++) {
+         for (int localCol = 0; localCol < size; localCol++) {
+            int dx = localCol + this.contribution.getOriginCol() - this.seenCol;
+            int dy = localRow + this.contribution.getOriginRow() - this.seenRow;
+            values[localRow * size + localCol] = falloff.opacityAt(dx, dy);
+         }
+      }
+
+      fieldOfView(algorithm).updateMapCellsVisibility(grid, this.seenCol, this.seenRow, this.contribution);
+      this.contributionValid = true;
+   }
+
+}
@@ -0,0 +1,321 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import lombok.Getter;
+import lombok.Setter;
+import meridian.main.GameParam;
+import meridian.map.FieldOfView;
+import meridian.map.MapGrid;
+import meridian.profile.FrameProfiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Calculates the visible opacity of the cells around the viewer (player) from the light
+ * of the viewer and all the light sources of the map. A cell is visible if it is lit by the
+ * viewer's own light or it is lit by a light source and the viewer can see it:
+ *
+ * <pre>
+ *  opacity = max(viewer light, min(brightest source light, viewer sight))
+ * </pre>
+ *
+ * The light sources out of the screen area are skipped, and the light of the sources is
+ * cached by the sources until they move. Nothing is recalculated while the viewer, the
+ * sources and the map are unchanged.
+ *
+ * With a ForkJoinPool the light of the changed sources is calculated in parallel - every
+ * source has its own buffer, and the maximum does not depend on the order of the merge,
+ * so the result is the same as the sequential one.
+ */
+public class LightingEngine {
+
+   // Examined cells around the viewer.
+   private static final int VIEW_COLS = GameParam.MAX_SCREEN_COL + 3;
+   private static final int VIEW_ROWS = GameParam.MAX_SCREEN_ROW + 2;
+
+   // Fewer changed sources are calculated on the calling thread.
+   public static final int PARALLEL_THRESHOLD = 2;
+
+   // Sight of the viewer (the lights are shaded by the same algorithm in their radius).
+   @Getter
+   private FieldOfView sight;
+
+   // Pool of the parallel calculation - null: sequential.
+   @Getter
+   private final ForkJoinPool pool;
+
+   private final List<LightSource> lights = new ArrayList<>();
+   private int lightsVersion;
+
+   // Sources in the examined area at the last update and their not calculated part.
+   private final List<LightSource> visibleLights = new ArrayList<>();
+   private final List<LightSource> pendingLights = new ArrayList<>();
+
+   // Light of the viewer, viewer's sight and the brightest source light of the cells.
+   private final LightBuffer viewerLight = new LightBuffer(VIEW_COLS, VIEW_ROWS);
+   private final LightBuffer viewerSight = new LightBuffer(VIEW_COLS, VIEW_ROWS);
+   private final LightBuffer sourceLight = new LightBuffer(VIEW_COLS, VIEW_ROWS);
+
+   // State of the last calculation.
+   private MapGrid litGrid;
+   private int litVersion;
+   private int litViewerCol;
+   private int litViewerRow;
+   private int litViewerRadius;
+   private int litLightsVersion;
+
+   // Number of the calculations (not skipped updates).
+   @Getter
+   private long calculations;
+
+   // Times the field of view calculations (VISIBILITY stage) - null: not profiled.
+   @Setter
+   private FrameProfiler profiler;
+
+
+   public LightingEngine(FieldOfView sight) {
+      this(sight, null);
+   }
+
+   public LightingEngine(FieldOfView sight, ForkJoinPool pool) {
+      this.sight = sight;
+      this.pool = pool;
+   }
+
+   /**
+    * Changes the algorithm of the shadows (the reach of the sight is kept).
+    *
+    * @param algorithm FieldOfView.SHADE_MATRIX or FieldOfView.SHADOWCASTING.
+    */
+   public void setFieldOfView(String algorithm) {
+      if (algorithm.equals(this.sight.getAlgorithm())) {
+         return;
+      }
+
+      this.sight = FieldOfView.forReach(algorithm, this.sight.getReachCols(), this.sight.getReachRows());
+      for (LightSource light : this.lights) {
+         light.invalidate();
+      }
+      this.lightsVersion++;
+   }
+
+
+   public List<LightSource> getLights() {
+      return Collections.unmodifiableList(this.lights);
+   }
+
+   public void addLight(LightSource light) {
+      this.lights.add(light);
+      this.lightsVersion++;
+   }
+
+   public void removeLight(LightSource light) {
+      if (this.lights.remove(light)) {
+         this.lightsVersion++;
+      }
+   }
+
+   public void clearLights() {
+      this.lights.clear();
+      this.lightsVersion++;
+   }
+
+   /**
+    * Updates the visible opacity of the cells around the viewer.
+    *
+    * @param grid cells of the World Map.
+    * @param viewerCol column of the viewer.
+    * @param viewerRow row of the viewer.
+    * @param viewerRadius light radius of the viewer.
+    */
+   public void update(MapGrid grid, int viewerCol, int viewerRow, int viewerRadius) {
+      int startCol = Math.max(0, viewerCol - GameParam.MAX_SCREEN_COL / 2 - 1);
+      int startRow = Math.max(0, viewerRow - GameParam.MAX_SCREEN_ROW / 2 - 1);
+
+      boolean changed = grid != this.litGrid || grid.getVersion() != this.litVersion ||
+            viewerCol != this.litViewerCol || viewerRow != this.litViewerRow ||
+            viewerRadius != this.litViewerRadius || this.lightsVersion != this.litLightsVersion;
+
+      // Every source is checked - a source moved out of the area changes the result as well.
+      for (LightSource light : this.lights) {
+         if (light.checkChanged(grid)) {
+            changed = true;
+         }
+      }
+
+      if (!changed) {
+         return;
+      }
+      this.litGrid = grid;
+      this.litVersion = grid.getVersion();
+      this.litViewerCol = viewerCol;
+      this.litViewerRow = viewerRow;
+      this.litViewerRadius = viewerRadius;
+      this.litLightsVersion = this.lightsVersion;
+      this.calculations++;
+
+      this.viewerLight.moveTo(startCol, startRow);
+      this.viewerSight.moveTo(startCol, startRow);
+      this.sourceLight.moveTo(startCol, startRow);
+
+      // Light of the viewer.
+      LightFalloff falloff = LightFalloff.forRadius(viewerRadius);
+      float[] values = this.viewerLight.getValues();
+      for (int row = 0; row < VIEW_ROWS; row++) {
+         for (int col = 0; col < VIEW_COLS; col++) {
+            values[row * VIEW_COLS + col] = falloff.opacityAt(startCol + col - viewerCol, startRow + row - viewerRow);
+         }
+      }
+      long visibilityStart = startProfiling();
+      falloff.getFieldOfView(this.sight.getAlgorithm()).updateMapCellsVisibility(grid, viewerCol, viewerRow, this.viewerLight);
+      stopProfiling(visibilityStart);
+
+      collectVisibleLights();
+      if (this.visibleLights.isEmpty()) {
+         copyToGrid(grid, this.viewerLight);
+         return;
+      }
+
+      // Brightest light of the sources (their light is shaded by the field of view as well).
+      visibilityStart = startProfiling();
+      updateContributions(grid);
+      stopProfiling(visibilityStart);
+      this.sourceLight.fill(0.0f);
+      for (LightSource light : this.visibleLights) {
+         this.sourceLight.maxMerge(light.getContribution());
+      }
+
+      // Cells which can be seen by the viewer - the walls are known only in the range of the shade matrix.
+      float[] sight = this.viewerSight.getValues();
+      for (int row = 0; row < VIEW_ROWS; row++) {
+         for (int col = 0; col < VIEW_COLS; col++) {
+            boolean inRange = Math.abs(startCol + col - viewerCol) <= this.sight.getReachCols() &&
+                  Math.abs(startRow + row - viewerRow) <= this.sight.getReachRows();
+            sight[row * VIEW_COLS + col] = inRange ? 1.0f : 0.0f;
+         }
+      }
+      visibilityStart = startProfiling();
+      this.sight.updateMapCellsVisibility(grid, viewerCol, viewerRow, this.viewerSight);
+      stopProfiling(visibilityStart);
+
+      float[] sources = this.sourceLight.getValues();
+      for (int i = 0; i < values.length; i++) {
+         values[i] = Math.max(values[i], Math.min(sources[i], sight[i]));
+      }
+      copyToGrid(grid, this.viewerLight);
+   }
+
+   private long startProfiling() {
+      return this.profiler != null ? this.profiler.start() : 0;
+   }
+
+   private void stopProfiling(long start) {
+      if (this.profiler != null) {
+         this.profiler.stop(FrameProfiler.Stage.VISIBILITY, start);
+      }
+   }
+
+   private void collectVisibleLights() {
+      this.visibleLights.clear();
+      for (LightSource light : this.lights) {
+         if (this.viewerLight.intersects(light.firstCol(), light.firstRow(), light.lastCol(), light.lastRow())) {
+            this.visibleLights.add(light);
+         }
+      }
+   }
+
+   // Calculates the light of the changed visible sources.
+   private void updateContributions(MapGrid grid) {
+      this.pendingLights.clear();
+      for (LightSource light : this.visibleLights) {
+         if (!light.isContributionValid()) {
+            this.pendingLights.add(light);
+         }
+      }
+
+      if (this.pool == null || this.pendingLights.size() < PARALLEL_THRESHOLD || !prefetchPendingLights(grid)) {
+         for (LightSource light : this.pendingLights) {
+            light.updateContribution(grid, this.sight.getAlgorithm());
+         }
+         return;
+      }
+
+      // A few tasks per worker - enough for the balancing, but not one task for every light.
+      int leafSize = Math.max(1, this.pendingLights.size() / (this.pool.getParallelism() * 4));
+      this.pool.invoke(new ContributionTask(grid, 0, this.pendingLights.size(), leafSize));
+   }
+
+   // Pages in the cells of the pending sources - the workers may only read resident chunks.
+   private boolean prefetchPendingLights(MapGrid grid) {
+      // The shadows read farther than the lit area (the walls next to its edge).
+      for (LightSource light : this.pendingLights) {
+         FieldOfView fieldOfView = light.fieldOfView(this.sight.getAlgorithm());
+         grid.prefetch(light.getCol(), light.getRow(), fieldOfView.getReadCols(), fieldOfView.getReadRows());
+      }
+
+      // Too small chunk limit - some chunks have been evicted by the others.
+      for (LightSource light : this.pendingLights) {
+         FieldOfView fieldOfView = light.fieldOfView(this.sight.getAlgorithm());
+         if (!grid.isResident(light.getCol(), light.getRow(), fieldOfView.getReadCols(), fieldOfView.getReadRows())) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private void copyToGrid(MapGrid grid, LightBuffer buffer) {
+      int endCol = Math.min(buffer.getOriginCol() + buffer.getWidth(), grid.getWidth());
+      int endRow = Math.min(buffer.getOriginRow() + buffer.getHeight(), grid.getHeight());
+      float[] values = buffer.getValues();
+
+      for (int row = buffer.getOriginRow(); row < endRow; row++) {
+         int index = buffer.index(buffer.getOriginCol(), row);
+         for (int col = buffer.getOriginCol(); col < endCol; col++, index++) {
+            grid.setVisibleOpacity(col, row, values[index]);
+         }
+      }
+
+   }
+
+   // Calculates the pending sources from 'start' to 'end' exclusive - split in halves.
+   private class ContributionTask extends RecursiveAction {
+
+      private static final long serialVersionUID = 1L;
+
+      private final transient MapGrid grid;
+      private final int start;
+      private final int end;
+      private final int leafSize;
+
+      ContributionTask(MapGrid grid, int start, int end, int leafSize) {
+         this.grid = grid;
+         this.start = start;
+         this.end = end;
+         this.leafSize = leafSize;
+      }
+
+      @Override
+      protected void compute() {
+         if (this.end - this.start <= this.leafSize) {
+            for (int i = this.start; i < this.end; i++) {
+               pendingLights.get(i).updateContribution(this.grid, sight.getAlgorithm());
+            }
+            return;
+         }
+
+         int middle = (this.start + this.end) >>> 1;
+         invokeAll(new ContributionTask(this.grid, this.start, middle, this.leafSize),
+               new ContributionTask(this.grid, middle, this.end, this.leafSize));
+      }
+
+   }
+
+}
@@ -0,0 +1,37 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.loop;
+
+
+/**
+ * Waits for the start of the next frame of the game loop.
+ */
+public interface FramePacer {
+
+   // Pacers by name - selected by the 'meridian.pacer' system property.
+   String SLEEP = "sleep";
+   String SPIN_YIELD = "spinYield";
+   String VSYNC = "vsync";
+
+
+   static FramePacer forName(String name) {
+      if (SLEEP.equals(name)) {
+         return new SleepPacer();
+      }
+      if (SPIN_YIELD.equals(name)) {
+         return new SpinYieldPacer();
+      }
+      if (VSYNC.equals(name)) {
+         return new VsyncPacer();
+      }
+      throw new IllegalStateException("Unknown frame pacer: " + name);
+   }
+
+   /**
+    * @param deadline start of the next frame by System.nanoTime().
+    */
+   void waitUntil(long deadline);
+
+}
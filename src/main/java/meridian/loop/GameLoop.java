@@ -0,0 +1,155 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.loop;
+
+import lombok.Getter;
+import meridian.main.GameParam;
+
+import java.util.function.LongSupplier;
+
+
+/**
+ * Game loop with a fixed simulation step and variable rate rendering. The elapsed time is
+ * accumulated and consumed by fixed ticks, so the simulation does not depend on the frame
+ * times - every tick is the same step of the game. The frames are drawn between the last
+ * two ticks by the remaining part of a tick (interpolation factor: 0 - previous tick,
+ * 1 - last tick).
+ *
+ * After a long frame the missing ticks are caught up, but at most by 'maxTicksPerFrame'
+ * ticks - the rest is skipped (the game slows down instead of freezing in catching up).
+ */
+public class GameLoop implements Runnable {
+
+   // One step of the game.
+   public interface Simulation {
+      void tick();
+   }
+
+   // Draws a frame - 'alpha' is the position between the previous and the last tick (0..1).
+   public interface Renderer {
+      void render(float alpha);
+   }
+
+   private final Simulation simulation;
+   private final Renderer renderer;
+   private final FramePacer pacer;
+   private final LongSupplier clock;
+
+   // Times in nanoseconds - frame interval 0: the frames are not capped (only paced by the pacer).
+   @Getter
+   private final long tickInterval;
+   @Getter
+   private final long frameInterval;
+   @Getter
+   private final int maxTicksPerFrame;
+
+   private volatile boolean running;
+
+   // Observable state: durations of the last frame (start to start), its ticks and its rendering.
+   @Getter
+   private volatile long lastFrameTime;
+   @Getter
+   private volatile long lastTickTime;
+   @Getter
+   private volatile long lastRenderTime;
+   @Getter
+   private volatile int lastFrameTicks;
+
+   @Getter
+   private volatile long ticks;
+   @Getter
+   private volatile long frames;
+   @Getter
+   private volatile long skippedTicks;
+
+
+   public GameLoop(Simulation simulation, Renderer renderer, FramePacer pacer) {
+      this(simulation, renderer, pacer, GameParam.DRAW_INTERVAL);
+   }
+
+   // Loop of the game ticks with the given shortest frame in nanoseconds (0: not capped).
+   public GameLoop(Simulation simulation, Renderer renderer, FramePacer pacer, long frameInterval) {
+      this(simulation, renderer, pacer, GameParam.TICK_INTERVAL, frameInterval,
+            GameParam.MAX_TICKS_PER_FRAME, System::nanoTime);
+   }
+
+   /**
+    * @param simulation steps of the game.
+    * @param renderer draws the frames.
+    * @param pacer waits for the next frame.
+    * @param tickInterval length of a tick in nanoseconds.
+    * @param frameInterval shortest frame in nanoseconds (0: not capped).
+    * @param maxTicksPerFrame most ticks caught up in one frame.
+    * @param clock time source in nanoseconds.
+    */
+   public GameLoop(Simulation simulation, Renderer renderer, FramePacer pacer,
+                   long tickInterval, long frameInterval, int maxTicksPerFrame, LongSupplier clock) {
+      if (tickInterval <= 0 || frameInterval < 0 || maxTicksPerFrame < 1) {
+         throw new IllegalStateException("Invalid game loop timing: tick " + tickInterval +
+               ", frame " + frameInterval + ", max ticks " + maxTicksPerFrame);
+      }
+      this.simulation = simulation;
+      this.renderer = renderer;
+      this.pacer = pacer;
+      this.tickInterval = tickInterval;
+      this.frameInterval = frameInterval;
+      this.maxTicksPerFrame = maxTicksPerFrame;
+      this.clock = clock;
+   }
+
+
+   public boolean isRunning() {
+      return this.running;
+   }
+
+   // Stops the loop after the current frame.
+   public void stop() {
+      this.running = false;
+   }
+
+   @Override
+   public void run() {
+      this.running = true;
+      long previousTime = this.clock.getAsLong();
+      long nextFrameTime = previousTime;
+      long accumulator = 0;
+
+      while (this.running) {
+         long frameStart = this.clock.getAsLong();
+         this.lastFrameTime = frameStart - previousTime;
+         accumulator += frameStart - previousTime;
+         previousTime = frameStart;
+
+         // Catching up the elapsed ticks.
+         int frameTicks = 0;
+         while (accumulator >= this.tickInterval && frameTicks < this.maxTicksPerFrame) {
+            this.simulation.tick();
+            accumulator -= this.tickInterval;
+            frameTicks++;
+            this.ticks++;
+         }
+         if (accumulator >= this.tickInterval) {
+            this.skippedTicks += accumulator / this.tickInterval;
+            accumulator %= this.tickInterval;
+         }
+         long ticksEnd = this.clock.getAsLong();
+         this.lastFrameTicks = frameTicks;
+         this.lastTickTime = ticksEnd - frameStart;
+
+         this.renderer.render((float) accumulator / this.tickInterval);
+         this.lastRenderTime = this.clock.getAsLong() - ticksEnd;
+         this.frames++;
+
+         // The next frame is not earlier than one frame interval - a late frame does not cause a burst.
+         nextFrameTime += this.frameInterval;
+         if (nextFrameTime < frameStart) {
+            nextFrameTime = frameStart + this.frameInterval;
+         }
+         this.pacer.waitUntil(nextFrameTime);
+      }
+
+   }
+
+}
@@ -0,0 +1,32 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.loop;
+
+
+/**
+ * Sleeps until the next frame - cheap, but the wake up can be late by the timer
+ * resolution of the system (1-15 ms).
+ */
+public class SleepPacer implements FramePacer {
+
+   @Override
+   public void waitUntil(long deadline) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+         return;
+      }
+
+      try {
+         Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+      }
+      catch (InterruptedException e) {
+         // Restore interrupted state...
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException("Program running interrupted: " + e);
+      }
+
+   }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.loop;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Parks the thread until shortly before the next frame, and yields the processor in
+ * the rest of the time - precise start of the frames for a little processor time.
+ */
+public class SpinYieldPacer implements FramePacer {
+
+   // Time before the deadline which is spent by yielding (longer than the usual timer resolution).
+   public static final long DEFAULT_SPIN_TIME = 2_000_000;
+
+   private final long spinTime;
+
+
+   public SpinYieldPacer() {
+      this(DEFAULT_SPIN_TIME);
+   }
+
+   public SpinYieldPacer(long spinTime) {
+      this.spinTime = spinTime;
+   }
+
+
+   @Override
+   public void waitUntil(long deadline) {
+      long remaining = deadline - System.nanoTime();
+      while (remaining > 0) {
+         if (remaining > this.spinTime) {
+            LockSupport.parkNanos(remaining - this.spinTime);
+         }
+         else {
+            Thread.yield();
+         }
+
+         if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Program running interrupted");
+         }
+         remaining = deadline - System.nanoTime();
+      }
+
+   }
+
+}
@@ -0,0 +1,24 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.loop;
+
+import java.awt.*;
+
+
+/**
+ * Does not wait for the deadline - the frames are paced by the display: showing a
+ * flipped buffer waits for the vertical blank. Without a waiting presentation the loop
+ * renders as fast as it can.
+ */
+public class VsyncPacer implements FramePacer {
+
+   @Override
+   public void waitUntil(long deadline) {
+      // Push the drawn frame to the display (needed on some systems).
+      Toolkit.getDefaultToolkit().sync();
+      Thread.yield();
+   }
+
+}
@@ -0,0 +1,293 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+import lombok.Getter;
+import meridian.entity.AnimationSystem;
+import meridian.entity.ChaseSystem;
+import meridian.entity.EntityStore;
+import meridian.entity.LightEmissionSystem;
+import meridian.entity.MovementSystem;
+import meridian.entity.Player;
+import meridian.loop.FramePacer;
+import meridian.loop.GameLoop;
+import meridian.map.Camera;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.ShadeMatrix;
+import meridian.path.FlowFieldUpdater;
+import meridian.profile.FrameProfiler;
+import meridian.profile.PerformanceOverlay;
+import meridian.replay.InputRecorder;
+import meridian.replay.InputRecording;
+import meridian.replay.StateHash;
+import meridian.sound.SoundManager;
+import meridian.tile.TileManager;
+
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * The game itself - its state, one tick of it and drawing a frame of it. The screen
+ * (GameCanvas or GamePanel) only shows the drawn frames.
+ */
+@Getter
+public class Game {
+
+   // Start of the game - without menu, load, etc.
+   private static final int START_MAP_ID = 1;
+   private static final int START_COL = 4;
+   private static final int START_ROW = 3;
+
+   // Ticks between the state hashes of the recordings.
+   private static final int HASH_INTERVAL = GameParam.TICKS_PER_SECOND;
+
+   private static final Font MESSAGE_FONT = new Font(Font.MONOSPACED, Font.BOLD, 14);
+
+   // Handle key pressing.
+   private final KeyHandler keyHandler = new KeyHandler();
+
+   // Tile graphics.
+   private final TileManager tileManager = new TileManager();
+
+   // Opacity (shade) calculator
+   private final ShadeMatrix shadeMatrix = ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW);
+
+   // World Map graphics.
+   private final MapManager mapManager = new MapManager(this.tileManager, this.shadeMatrix);
+
+   // Collision handler.
+   private final CollisionChecker collisionChecker = new CollisionChecker(this.mapManager);
+
+   // Sounds
+   private final SoundManager soundManager = new SoundManager();
+
+   // Controls of the current tick - taken from the keys (or the replay) at the start of the tick.
+   private final ScriptedInput input = new ScriptedInput();
+   private final InputSnapshot keySnapshot = new InputSnapshot();
+
+   // Add a Player.
+   private final Player player = new Player(this.input, this.collisionChecker);
+   private final int playerSlot;
+
+   // Monsters of the map and their systems.
+   private final EntityStore monsters = new EntityStore();
+   private final MovementSystem monsterMovement = new MovementSystem(this.collisionChecker, ForkJoinPool.commonPool());
+   private final AnimationSystem monsterAnimation = new AnimationSystem();
+   private final LightEmissionSystem monsterLights = new LightEmissionSystem(this.mapManager.getLightingEngine());
+
+   // Distances from the player - the monsters chase the player by it.
+   private final FlowFieldUpdater chaseField;
+   private final ChaseSystem monsterChase = new ChaseSystem();
+
+   // Drawn position of the map - follows the player between the ticks.
+   private final Camera camera = new Camera();
+
+   // Time of the stages of the frames (meridian.profileCsv: the frames are written into that CSV file as well).
+   private final FrameProfiler profiler = createProfiler();
+   private final PerformanceOverlay overlay = new PerformanceOverlay(this.profiler);
+
+   // Replayed recording (meridian.replay: its file) and the recording of the controls (meridian.record: its file).
+   private final InputRecording replay = readReplay();
+   private final InputRecorder recorder;
+
+   // Source of the controls of the ticks: the keys or the replay.
+   private final InputScript inputScript;
+   private long ticks;
+
+   // Tick where the replay diverged from its recording (0: not diverged) - the game is stopped there.
+   private long divergedTick;
+
+   // Game loop and its thread.
+   private GameLoop gameLoop;
+   private Thread gameThread;
+
+
+   public Game() {
+      this.mapManager.getLightingEngine().setProfiler(this.profiler);
+
+      // basic start - the replay starts where its recording started
+      int mapId = this.replay != null ? this.replay.getMapId() : START_MAP_ID;
+      int startCol = this.replay != null ? this.replay.getStartCol() : START_COL;
+      int startRow = this.replay != null ? this.replay.getStartRow() : START_ROW;
+      this.mapManager.loadMapById(mapId);
+
+      // place player on the WORLD map
+      this.player.setWorldCol(startCol);
+      this.player.setWorldRow(startRow);
+      this.player.setShiftX(0);
+      this.player.setShiftY(0);
+      this.player.storePreviousPosition();
+      this.playerSlot = this.mapManager.getEntityIndex().add(this.player);
+
+      this.inputScript = this.replay != null ? this.replay : tick -> this.keyHandler.poll(this.keySnapshot);
+      this.recorder = createRecorder(mapId, startCol, startRow);
+
+      // Flooded in the background - except the recorded and the replayed games (they must be the same by the ticks).
+      this.chaseField = new FlowFieldUpdater(this.collisionChecker, this.replay == null && this.recorder == null);
+
+      // play start songs
+      this.soundManager.setPlayOfSoundFileByKeyname("start");
+      this.soundManager.play();
+
+   }
+
+
+   /**
+    * Starts the game loop on its own thread.
+    *
+    * @param renderer shows the frames (the game thread calls it).
+    */
+   public void start(GameLoop.Renderer renderer) {
+      // The frames are paced by the clock - the vsync pacer only on request (the buffers do not wait for the display).
+      FramePacer pacer = FramePacer.forName(System.getProperty("meridian.pacer", FramePacer.SPIN_YIELD));
+      this.gameLoop = new GameLoop(this::update, alpha -> {
+         renderer.render(alpha);
+         this.profiler.endFrame();
+      }, pacer, frameInterval());
+      this.gameThread = new Thread(this.gameLoop, "game-loop");
+      this.gameThread.start();
+
+   }
+
+   // One tick of the game.
+   public void update() {
+      if (divergedTick > 0) {
+         return;
+      }
+
+      int buttons = inputScript.buttonsAt(ticks);
+      input.setButtons(buttons);
+      if (recorder != null) {
+         recorder.record(buttons);
+      }
+
+      long start = profiler.start();
+      player.update();
+      mapManager.getEntityIndex().update(playerSlot);
+      profiler.stop(FrameProfiler.Stage.PLAYER_UPDATE, start);
+
+      start = profiler.start();
+      if (monsters.getSize() > 0) {
+         chaseField.request(player.getWorldCol(), player.getWorldRow());
+         monsterChase.update(monsters, chaseField.current());
+      }
+      monsterMovement.update(monsters);
+      monsterAnimation.update(monsters);
+      monsterLights.update(monsters);
+      profiler.stop(FrameProfiler.Stage.MONSTER_UPDATE, start);
+
+      start = profiler.start();
+      mapManager.updateLights(player);
+      profiler.stop(FrameProfiler.Stage.UPDATE_LIGHTS, start);
+
+      ticks++;
+      if (ticks % HASH_INTERVAL == 0 && (recorder != null || replay != null)) {
+         checkState(StateHash.of(mapManager.getCurrentMapId(), ticks, player));
+      }
+
+   }
+
+   private void checkState(long hash) {
+      if (recorder != null) {
+         recorder.checkpoint(hash);
+      }
+      if (replay != null && !replay.matches(ticks, hash)) {
+         // Stops the game loop after this frame - the rest of the replay would not show the recorded session.
+         divergedTick = ticks;
+         System.err.println("Replay diverged from its recording at tick " + ticks);
+         if (gameLoop != null) {
+            gameLoop.stop();
+         }
+      }
+   }
+
+   /**
+    * Draws a frame of the game.
+    *
+    * @param g2 target graphics of the screen size.
+    * @param alpha position of the frame between the last two ticks.
+    */
+   public void draw(Graphics2D g2, float alpha) {
+      camera.follow(player, alpha);
+      long start = profiler.start();
+      mapManager.drawMap(g2, camera);
+      profiler.stop(FrameProfiler.Stage.DRAW_MAP, start);
+
+      // TODO: draw items
+      // TODO: draw monsters
+
+      // draw player
+      start = profiler.start();
+      player.draw(g2);
+      profiler.stop(FrameProfiler.Stage.PLAYER_DRAW, start);
+
+      // TODO: draw secondary walls & decorations (door, torch, others...)
+
+      if (keyHandler.isOverlayVisible()) {
+         overlay.draw(g2);
+      }
+
+      // The last frame of a diverged replay.
+      if (divergedTick > 0) {
+         drawMessage(g2, "Replay diverged from its recording at tick " + divergedTick);
+      }
+
+   }
+
+   private void drawMessage(Graphics2D g2, String message) {
+      g2.setComposite(AlphaComposite.SrcOver);
+      g2.setColor(Color.black);
+      g2.fillRect(0, GameParam.SCREEN_HEIGHT / 2 - 20, GameParam.SCREEN_WIDTH, 30);
+      g2.setFont(MESSAGE_FONT);
+      g2.setColor(Color.white);
+      g2.drawString(message, 12, GameParam.SCREEN_HEIGHT / 2);
+   }
+
+   // Shortest frame - by the refresh rate of the display, if it is known and the 'meridian.maxFps' property is not set.
+   private static long frameInterval() {
+      if (System.getProperty("meridian.maxFps") == null && !GraphicsEnvironment.isHeadless()) {
+         int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+               .getDisplayMode().getRefreshRate();
+         if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN) {
+            return 1_000_000_000L / refreshRate;
+         }
+      }
+      return GameParam.DRAW_INTERVAL;
+   }
+
+   private static InputRecording readReplay() {
+      String replayFile = System.getProperty("meridian.replay");
+      if (replayFile == null || replayFile.isBlank()) {
+         return null;
+      }
+      return InputRecording.read(Path.of(replayFile));
+   }
+
+   private static InputRecorder createRecorder(int mapId, int startCol, int startRow) {
+      String recordFile = System.getProperty("meridian.record");
+      if (recordFile == null || recordFile.isBlank()) {
+         return null;
+      }
+
+      InputRecorder recorder = InputRecorder.create(Path.of(recordFile), mapId, startCol, startRow, HASH_INTERVAL);
+      Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "record-close"));
+      return recorder;
+   }
+
+   private static FrameProfiler createProfiler() {
+      String csvFile = System.getProperty("meridian.profileCsv");
+      if (csvFile == null || csvFile.isBlank()) {
+         return new FrameProfiler();
+      }
+
+      FrameProfiler profiler = new FrameProfiler(Path.of(csvFile));
+      Runtime.getRuntime().addShutdownHook(new Thread(profiler::close, "profile-close"));
+      return profiler;
+   }
+
+}
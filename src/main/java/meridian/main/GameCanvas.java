@@ -0,0 +1,74 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+import meridian.loop.GameLoop;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+
+/**
+ * Screen settings - active rendering: the game thread draws the frames into the back
+ * buffer of a BufferStrategy (page flipping if the system supports it, three buffers)
+ * and shows them at once, without the event dispatch thread and repaint requests.
+ */
+public class GameCanvas extends Canvas implements GameLoop.Renderer {
+
+   private static final long serialVersionUID = 1L;
+
+   private static final int BUFFERS = 3;
+
+   private final transient Game game;
+   private transient BufferStrategy bufferStrategy;
+
+
+   public GameCanvas(Game game) {
+      this.game = game;
+      this.setPreferredSize(new Dimension(GameParam.SCREEN_WIDTH, GameParam.SCREEN_HEIGHT));
+      this.setBackground(GameParam.DEFAULT_BACKGROUND);
+      this.setIgnoreRepaint(true);
+      this.addKeyListener(game.getKeyHandler());
+      this.setFocusable(true);
+
+   }
+
+
+   // Creates the buffers - the canvas must be displayable (its window packed).
+   public void createBuffers() {
+      try {
+         // Page flipping in video memory.
+         createBufferStrategy(BUFFERS, new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true),
+               BufferCapabilities.FlipContents.UNDEFINED));
+      }
+      catch (AWTException e) {
+         // Not supported - the best available strategy (blitting).
+         createBufferStrategy(BUFFERS);
+      }
+      this.bufferStrategy = getBufferStrategy();
+
+   }
+
+   @Override
+   public void render(float alpha) {
+      // The buffers can be lost (display mode change, minimizing...) - drawn again until it is shown.
+      do {
+         do {
+            Graphics2D g2 = (Graphics2D) this.bufferStrategy.getDrawGraphics();
+            g2.setColor(GameParam.DEFAULT_BACKGROUND);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            game.draw(g2, alpha);
+            g2.dispose();
+         } while (this.bufferStrategy.contentsRestored());
+
+         this.bufferStrategy.show();
+      } while (this.bufferStrategy.contentsLost());
+
+      // Push the frame to the display (needed on some systems).
+      Toolkit.getDefaultToolkit().sync();
+
+   }
+
+}
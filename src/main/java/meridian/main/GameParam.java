@@ -25,9 +25,20 @@ public final class GameParam {
 
    public static final Color DEFAULT_BACKGROUND = Color.black;
 
-   // FPS - Screen frame per second.
-   public static final int FPS = 60;
-   public static final long DRAW_INTERVAL = 1000000000 / FPS;
+   // Number of the drawn opacity levels of the cells (the lighting is quantized to these).
+   public static final int OPACITY_LEVELS = 32;
+
+   // FPS - Screen frame per second (highest drawing rate) - 0: not capped.
+   // Set by the 'meridian.maxFps' system property (without it the game uses the refresh rate of the display).
+   public static final int FPS = Integer.getInteger("meridian.maxFps", 60);
+   public static final long DRAW_INTERVAL = FPS > 0 ? 1000000000 / FPS : 0;
+
+   // Simulation steps per second - the movement speeds are given per tick.
+   public static final int TICKS_PER_SECOND = 60;
+   public static final long TICK_INTERVAL = 1000000000 / TICKS_PER_SECOND;
+
+   // Most ticks caught up after a long frame (the rest is skipped).
+   public static final int MAX_TICKS_PER_FRAME = 5;
 
 
    private GameParam() {
@@ -0,0 +1,102 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Lock-free ring buffer of the control events from one producer (the event dispatch thread)
+ * to one consumer (the game thread). An event is packed into a long (time, press or release
+ * and the button), so offering and draining do not allocate, and the events keep their
+ * order.
+ *
+ * The producer writes the slot first and publishes it by the tail (release store), the
+ * consumer frees the slots by the head - both indices are only written by their own thread.
+ */
+public class InputEventQueue {
+
+   public static final int DEFAULT_CAPACITY = 256;
+
+   // Layout of an event: time << 8 | pressed << 7 | button bit index.
+   private static final int TIME_SHIFT = 8;
+   private static final long PRESSED_FLAG = 0x80;
+   private static final long BUTTON_MASK = 0x0F;
+
+   private final long[] events;
+   private final int mask;
+
+   // Next slot to write (producer) and to read (consumer).
+   private final AtomicLong tail = new AtomicLong();
+   private final AtomicLong head = new AtomicLong();
+
+   // Last seen index of the other side (fewer volatile reads).
+   private long producerHeadCache;
+   private long consumerTailCache;
+
+
+   public InputEventQueue() {
+      this(DEFAULT_CAPACITY);
+   }
+
+   // The capacity is rounded up to a power of two.
+   public InputEventQueue(int capacity) {
+      if (capacity < 1 || capacity > (1 << 30)) {
+         throw new IllegalStateException("Invalid input queue capacity: " + capacity);
+      }
+      int size = Integer.highestOneBit(capacity);
+      if (size < capacity) {
+         size <<= 1;
+      }
+      this.events = new long[size];
+      this.mask = size - 1;
+   }
+
+
+   /**
+    * Adds an event (producer thread only).
+    *
+    * @param time time of the event in nanoseconds (System.nanoTime).
+    * @param button button bit of InputState.
+    * @param pressed true: pressed, false: released.
+    * @return false if the queue is full (the event is lost).
+    */
+   public boolean offer(long time, int button, boolean pressed) {
+      long index = this.tail.get();
+      if (index - this.producerHeadCache >= this.events.length) {
+         this.producerHeadCache = this.head.get();
+         if (index - this.producerHeadCache >= this.events.length) {
+            return false;
+         }
+      }
+
+      this.events[(int) index & this.mask] = time << TIME_SHIFT | (pressed ? PRESSED_FLAG : 0) |
+            Integer.numberOfTrailingZeros(button);
+      this.tail.lazySet(index + 1);
+      return true;
+   }
+
+   /**
+    * Applies the waiting events to the snapshot in their order (consumer thread only).
+    *
+    * @param snapshot controls of the tick.
+    * @return number of the applied events.
+    */
+   public int drainTo(InputSnapshot snapshot) {
+      long index = this.head.get();
+      if (index == this.consumerTailCache) {
+         this.consumerTailCache = this.tail.get();
+      }
+
+      int count = 0;
+      for (; index < this.consumerTailCache; index++, count++) {
+         long event = this.events[(int) index & this.mask];
+         snapshot.apply(event >> TIME_SHIFT, 1 << (int) (event & BUTTON_MASK), (event & PRESSED_FLAG) != 0);
+      }
+      this.head.lazySet(index);
+      return count;
+   }
+
+}
@@ -0,0 +1,18 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+
+// Controls of the ticks given by a program (scripts of the headless runs, replays).
+@FunctionalInterface
+public interface InputScript {
+
+   /**
+    * @param tick number of the tick from the start of the run.
+    * @return pressed controls in the tick (button mask of InputState).
+    */
+   int buttonsAt(long tick);
+
+}
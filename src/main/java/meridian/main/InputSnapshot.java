@@ -0,0 +1,81 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+import lombok.Getter;
+
+
+/**
+ * Controls of a tick built from the input events. A press is latched for the tick: a
+ * button pressed and released between two ticks counts as pressed in the next tick, so the
+ * short taps are not lost.
+ */
+public class InputSnapshot implements InputState {
+
+   // Buttons held down after the events (button mask of InputState).
+   @Getter
+   private int held;
+
+   // Buttons pressed / released since the start of the tick.
+   @Getter
+   private int pressed;
+   @Getter
+   private int released;
+
+   // Time of the last applied event (System.nanoTime), 0: none yet.
+   @Getter
+   private long lastEventTime;
+
+
+   // Starts a new tick - the held buttons remain.
+   public void beginTick() {
+      this.pressed = 0;
+      this.released = 0;
+   }
+
+   // Sets the held buttons (without events - after lost events).
+   public void reset(int buttons) {
+      this.held = buttons;
+   }
+
+   public void apply(long time, int button, boolean down) {
+      if (down) {
+         this.held |= button;
+         this.pressed |= button;
+      }
+      else {
+         this.held &= ~button;
+         this.released |= button;
+      }
+      this.lastEventTime = time;
+   }
+
+   // Held and latched buttons of the tick.
+   @Override
+   public int getButtons() {
+      return this.held | this.pressed;
+   }
+
+   @Override
+   public boolean isLeftPressed() {
+      return (getButtons() & LEFT) != 0;
+   }
+
+   @Override
+   public boolean isRightPressed() {
+      return (getButtons() & RIGHT) != 0;
+   }
+
+   @Override
+   public boolean isUpPressed() {
+      return (getButtons() & UP) != 0;
+   }
+
+   @Override
+   public boolean isDownPressed() {
+      return (getButtons() & DOWN) != 0;
+   }
+
+}
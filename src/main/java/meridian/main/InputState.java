@@ -0,0 +1,33 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+
+/**
+ * Pressed movement controls - the keyboard (KeyHandler) or a script (headless runs).
+ */
+public interface InputState {
+
+   // Bits of the controls in a button mask.
+   int LEFT = 1;
+   int RIGHT = 2;
+   int UP = 4;
+   int DOWN = 8;
+
+   boolean isLeftPressed();
+
+   boolean isRightPressed();
+
+   boolean isUpPressed();
+
+   boolean isDownPressed();
+
+   // Pressed controls as a button mask.
+   default int getButtons() {
+      return (isLeftPressed() ? LEFT : 0) | (isRightPressed() ? RIGHT : 0) |
+            (isUpPressed() ? UP : 0) | (isDownPressed() ? DOWN : 0);
+   }
+
+}
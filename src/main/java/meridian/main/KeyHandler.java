@@ -9,13 +9,26 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 
+/**
+ * Keys of the game. The event dispatch thread queues the presses and releases of the
+ * controls (InputEventQueue), and the game thread takes them at the start of every tick
+ * into its snapshot (poll) - in their order, with the short taps latched for the tick.
+ */
 @Getter
-public class KeyHandler implements KeyListener {
+public class KeyHandler implements KeyListener, InputState {
+
+   // Buttons held down now (written by the event dispatch thread only).
+   private volatile int heldButtons;
+
+   // Presses and releases for the game thread.
+   private final InputEventQueue events = new InputEventQueue();
+
+   // The queue was full - the game thread takes the held buttons instead of the lost events.
+   private volatile boolean eventsLost;
 
-   private boolean leftPressed;
-   private boolean rightPressed;
-   private boolean upPressed;
-   private boolean downPressed;
+   // Performance overlay - switched by F3 (on the first press, not on the repeated ones).
+   private volatile boolean overlayVisible;
+   private boolean overlayKeyPressed;
 
 
    @Override
@@ -26,20 +39,17 @@ public class KeyHandler implements KeyListener {
    @Override
    public void keyPressed(KeyEvent e) {
       int code = e.getKeyCode();
-      if (code == KeyEvent.VK_LEFT || code == KeyEvent.VK_A || code == KeyEvent.VK_KP_LEFT) {
-         this.leftPressed = true;
-      }
+      int button = buttonOf(code);
 
-      if (code == KeyEvent.VK_RIGHT || code == KeyEvent.VK_D || code == KeyEvent.VK_KP_RIGHT) {
-            this.rightPressed =true;
+      // The repeated presses of a held key are not queued.
+      if (button != 0 && (this.heldButtons & button) == 0) {
+         this.heldButtons |= button;
+         queue(button, true);
       }
 
-      if (code == KeyEvent.VK_UP || code ==  KeyEvent.VK_W || code == KeyEvent.VK_KP_UP) {
-         this.upPressed = true;
-      }
-
-      if (code == KeyEvent.VK_DOWN || code == KeyEvent.VK_S || code == KeyEvent.VK_KP_DOWN) {
-         this.downPressed = true;
+      if (code == KeyEvent.VK_F3 && !this.overlayKeyPressed) {
+         this.overlayKeyPressed = true;
+         this.overlayVisible = !this.overlayVisible;
       }
 
    }
@@ -47,22 +57,83 @@ public class KeyHandler implements KeyListener {
    @Override
    public void keyReleased(KeyEvent e) {
       int code = e.getKeyCode();
+      int button = buttonOf(code);
+
+      if (button != 0 && (this.heldButtons & button) != 0) {
+         this.heldButtons &= ~button;
+         queue(button, false);
+      }
+
+      if (code == KeyEvent.VK_F3) {
+         this.overlayKeyPressed = false;
+      }
+
+   }
+
+   private static int buttonOf(int code) {
       if (code == KeyEvent.VK_LEFT || code == KeyEvent.VK_A || code == KeyEvent.VK_KP_LEFT) {
-         this.leftPressed = false;
+         return LEFT;
       }
 
       if (code == KeyEvent.VK_RIGHT || code == KeyEvent.VK_D || code == KeyEvent.VK_KP_RIGHT) {
-         this.rightPressed = false;
+         return RIGHT;
       }
 
       if (code == KeyEvent.VK_UP || code ==  KeyEvent.VK_W || code == KeyEvent.VK_KP_UP) {
-         this.upPressed = false;
+         return UP;
       }
 
       if (code == KeyEvent.VK_DOWN || code == KeyEvent.VK_S || code == KeyEvent.VK_KP_DOWN) {
-         this.downPressed = false;
+         return DOWN;
       }
 
+      return 0;
+   }
+
+   private void queue(int button, boolean pressed) {
+      if (!this.events.offer(System.nanoTime(), button, pressed)) {
+         this.eventsLost = true;
+      }
+   }
+
+   /**
+    * Takes the events since the last tick into the snapshot (game thread only).
+    *
+    * @param snapshot controls of the ticks.
+    * @return the held and latched buttons of the tick.
+    */
+   public int poll(InputSnapshot snapshot) {
+      snapshot.beginTick();
+      this.events.drainTo(snapshot);
+
+      if (this.eventsLost) {
+         // Some releases may be missing - the held buttons are known.
+         this.eventsLost = false;
+         this.events.drainTo(snapshot);
+         snapshot.reset(this.heldButtons);
+      }
+      return snapshot.getButtons();
+   }
+
+   // Buttons held down now (not the controls of the tick).
+   @Override
+   public boolean isLeftPressed() {
+      return (this.heldButtons & LEFT) != 0;
+   }
+
+   @Override
+   public boolean isRightPressed() {
+      return (this.heldButtons & RIGHT) != 0;
+   }
+
+   @Override
+   public boolean isUpPressed() {
+      return (this.heldButtons & UP) != 0;
+   }
+
+   @Override
+   public boolean isDownPressed() {
+      return (this.heldButtons & DOWN) != 0;
    }
 
-}
\ No newline at end of file
+}
@@ -11,6 +11,11 @@ import javax.swing.*;
  * main program
  */
 public class Main {
+
+   // Screens - selected by the 'meridian.renderer' system property (def: canvas).
+   public static final String CANVAS_RENDERER = "canvas";
+   public static final String PANEL_RENDERER = "panel";
+
    public static void main(String[] args) {
 
       JFrame window = new JFrame();
@@ -18,16 +23,35 @@ public class Main {
       window.setResizable(false);
       window.setTitle("Dungeons and Monsters");
 
-      GamePanel gamePanel = new GamePanel();
-      window.add(gamePanel);
+      Game game = new Game();
+
+      if (PANEL_RENDERER.equals(System.getProperty("meridian.renderer", CANVAS_RENDERER))) {
+         // Swing painting (fallback).
+         GamePanel gamePanel = new GamePanel(game);
+         window.add(gamePanel);
+         showWindow(window);
+         gamePanel.requestFocusInWindow();
+
+         game.start(gamePanel);
+      }
+      else {
+         // Active rendering by the game thread.
+         GameCanvas gameCanvas = new GameCanvas(game);
+         window.add(gameCanvas);
+         showWindow(window);
+         gameCanvas.createBuffers();
+         gameCanvas.requestFocusInWindow();
+
+         game.start(gameCanvas);
+      }
 
+   }
+
+   private static void showWindow(JFrame window) {
       window.pack();
 
       window.setLocationRelativeTo(null);
       window.setVisible(true);
-
-      gamePanel.startGameThread();
-
    }
 
-}
\ No newline at end of file
+}
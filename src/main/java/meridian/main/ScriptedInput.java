@@ -0,0 +1,40 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+// Controls set by the program instead of the keyboard.
+public class ScriptedInput implements InputState {
+
+   // Pressed controls (button mask of InputState).
+   @Getter
+   @Setter
+   private int buttons;
+
+
+   @Override
+   public boolean isLeftPressed() {
+      return (this.buttons & LEFT) != 0;
+   }
+
+   @Override
+   public boolean isRightPressed() {
+      return (this.buttons & RIGHT) != 0;
+   }
+
+   @Override
+   public boolean isUpPressed() {
+      return (this.buttons & UP) != 0;
+   }
+
+   @Override
+   public boolean isDownPressed() {
+      return (this.buttons & DOWN) != 0;
+   }
+
+}
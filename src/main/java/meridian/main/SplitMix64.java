@@ -0,0 +1,30 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+
+/**
+ * Steps of the SplitMix64 generator - the hashes of the game states and the scripted
+ * controls are mixed by it (the same value gives the same bits on every system).
+ */
+public final class SplitMix64 {
+
+   // Increment of the generator state (the golden ratio).
+   public static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+   private SplitMix64() {
+
+   }
+
+
+   // Finalizer of the generator - spreads every bit of the value over the result.
+   public static long mix(long value) {
+      long z = value;
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
+   }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Layout of the binary '.dmap' World Map files (little endian):
+ *
+ * <pre>
+ *  header (32 bytes):  magic 'DMAP' | version (short) | plane count (short) |
+ *                      width (int) | height (int) | reserved (16 bytes)
+ *  plane directory:    plane count * (type (int) | bytes per cell (int) | offset (long))
+ *  planes:             width * height cells in row order, each plane aligned to 8 bytes
+ * </pre>
+ *
+ * The tile id plane is mandatory, the other planes hold optional metadata of the cells.
+ */
+public final class BinaryMapFormat {
+
+   public static final String FILE_EXTENSION = ".dmap";
+
+   public static final int MAGIC = 0x50414D44; // 'DMAP' in little endian
+   public static final short VERSION = 1;
+
+   public static final int HEADER_SIZE = 32;
+   public static final int PLANE_ENTRY_SIZE = 16;
+
+   // Plane types.
+   public static final int PLANE_TILE_IDS = 1;
+
+
+   private BinaryMapFormat() {
+
+   }
+
+
+   // Writes a map file with the tile id plane only.
+   public static void write(Path file, int width, int height, short[] tileIds) {
+      write(file, width, height, tileIds, new int[0], new byte[0][]);
+   }
+
+   /**
+    * Writes a map file with its tile id plane and optional metadata planes.
+    *
+    * @param file target file (overwritten if it exists).
+    * @param width map width in cells.
+    * @param height map height in cells.
+    * @param tileIds tile ids in row order.
+    * @param metadataTypes types of the optional metadata planes.
+    * @param metadataPlanes cell data of the metadata planes (one byte per cell in row order).
+    */
+   public static void write(Path file, int width, int height, short[] tileIds,
+                            int[] metadataTypes, byte[][] metadataPlanes) {
+
+      int planeCount = 1 + metadataTypes.length;
+      long offset = align(HEADER_SIZE + (long) planeCount * PLANE_ENTRY_SIZE);
+      long cells = (long) width * height;
+
+      ByteBuffer head = ByteBuffer.allocate(HEADER_SIZE + planeCount * PLANE_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      head.putInt(MAGIC).putShort(VERSION).putShort((short) planeCount).putInt(width).putInt(height);
+      head.position(HEADER_SIZE);
+
+      // Plane directory.
+      head.putInt(PLANE_TILE_IDS).putInt(Short.BYTES).putLong(offset);
+      long tileIdsOffset = offset;
+      offset = align(offset + cells * Short.BYTES);
+
+      long[] metadataOffsets = new long[metadataTypes.length];
+      for (int i = 0; i < metadataOffsets.length; i++) {
+         head.putInt(metadataTypes[i]).putInt(Byte.BYTES).putLong(offset);
+         metadataOffsets[i] = offset;
+         offset = align(offset + cells);
+      }
+      head.flip();
+
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+
+         channel.write(head, 0);
+
+         ByteBuffer plane = ByteBuffer.allocate(tileIds.length * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+         plane.asShortBuffer().put(tileIds);
+         channel.write(plane, tileIdsOffset);
+
+         for (int i = 0; i < metadataOffsets.length; i++) {
+            channel.write(ByteBuffer.wrap(metadataPlanes[i]), metadataOffsets[i]);
+         }
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Cannot write binary map file: " + e);
+      }
+
+   }
+
+   static long align(long offset) {
+      return (offset + 7) & ~7L;
+   }
+
+}
@@ -0,0 +1,126 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Tile ids of a binary '.dmap' file (see BinaryMapFormat). The file is memory mapped, so
+ * opening a map costs only the header parsing and the chunks read the tile ids straight
+ * from the mapped pages.
+ */
+public class BinaryMapSource implements ChunkSource {
+
+   @Getter
+   private final int width;
+   @Getter
+   private final int height;
+
+   // The whole mapped file.
+   private final MappedByteBuffer buffer;
+
+   // View of the tile id plane.
+   private final ShortBuffer tileIds;
+
+
+   public BinaryMapSource(Path file) {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+         this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Cannot open binary map file: " + e);
+      }
+      this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+      if (this.buffer.getInt(0) != BinaryMapFormat.MAGIC) {
+         throw new IllegalStateException("Not a binary map file: " + file);
+      }
+      if (this.buffer.getShort(4) != BinaryMapFormat.VERSION) {
+         throw new IllegalStateException("Unsupported binary map file version: " + this.buffer.getShort(4));
+      }
+      this.width = this.buffer.getInt(8);
+      this.height = this.buffer.getInt(12);
+
+      ByteBuffer plane = getPlane(BinaryMapFormat.PLANE_TILE_IDS);
+      if (plane == null) {
+         throw new IllegalStateException("Binary map file without tile ids: " + file);
+      }
+      this.tileIds = plane.asShortBuffer();
+   }
+
+   /**
+    * Opens a map from the classpath. The resources packed in a jar cannot be mapped, so
+    * those are copied into a temporary file first.
+    *
+    * @param mapName resource name of the map without extension.
+    * @return source of the map.
+    */
+   public static BinaryMapSource fromResource(String mapName) {
+      String resourceName = mapName + BinaryMapFormat.FILE_EXTENSION;
+      URL url = BinaryMapSource.class.getResource(resourceName);
+      if (url == null) {
+         throw new IllegalStateException("Binary map file not found: " + resourceName);
+      }
+
+      try {
+         if ("file".equals(url.getProtocol())) {
+            return new BinaryMapSource(Path.of(url.toURI()));
+         }
+
+         Path tempFile = Files.createTempFile("map-", BinaryMapFormat.FILE_EXTENSION);
+         tempFile.toFile().deleteOnExit();
+         try (InputStream inputStream = url.openStream()) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+         }
+         return new BinaryMapSource(tempFile);
+      }
+      catch (IOException | URISyntaxException e) {
+         throw new IllegalStateException("Cannot open binary map file: " + e);
+      }
+
+   }
+
+   /**
+    * @param type plane type (see BinaryMapFormat).
+    * @return little endian view of the plane or null if the file does not contain it.
+    */
+   public ByteBuffer getPlane(int type) {
+      int planeCount = this.buffer.getShort(6);
+      long cells = (long) this.width * this.height;
+
+      for (int i = 0; i < planeCount; i++) {
+         int entry = BinaryMapFormat.HEADER_SIZE + i * BinaryMapFormat.PLANE_ENTRY_SIZE;
+         if (this.buffer.getInt(entry) == type) {
+            int bytesPerCell = this.buffer.getInt(entry + 4);
+            int offset = (int) this.buffer.getLong(entry + 8);
+            return this.buffer.slice(offset, (int) (cells * bytesPerCell)).order(ByteOrder.LITTLE_ENDIAN);
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public void readTileIds(int startCol, int startRow, int cols, int rows, short[] target, int targetStride) {
+      for (int row = 0; row < rows; row++) {
+         this.tileIds.get((startRow + row) * this.width + startCol, target, row * targetStride, cols);
+      }
+   }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+import meridian.entity.Entity;
+import meridian.main.GameParam;
+
+
+/**
+ * Drawn position of the World Map - the followed entity's position interpolated between
+ * its previous and its last tick, so the scrolling is smooth at any drawing rate.
+ * The position has the form of the entities' position (cell and shift in pixels).
+ */
+@Getter
+public class Camera {
+
+   private int worldCol;
+   private int worldRow;
+   private int shiftX;
+   private int shiftY;
+
+
+   /**
+    * @param entity followed entity.
+    * @param alpha position between the previous (0) and the last (1) tick.
+    */
+   public void follow(Entity entity, float alpha) {
+      int previousX = pixelPosition(entity.getPreviousWorldCol(), entity.getPreviousShiftX());
+      int currentX = pixelPosition(entity.getWorldCol(), entity.getShiftX());
+      int x = Math.round(previousX + (currentX - previousX) * alpha);
+
+      if (x == currentX) {
+         this.worldCol = entity.getWorldCol();
+         this.shiftX = entity.getShiftX();
+      }
+      else {
+         this.worldCol = cellOf(x);
+         this.shiftX = this.worldCol * GameParam.TILE_SIZE - x;
+      }
+
+      int previousY = pixelPosition(entity.getPreviousWorldRow(), entity.getPreviousShiftY());
+      int currentY = pixelPosition(entity.getWorldRow(), entity.getShiftY());
+      int y = Math.round(previousY + (currentY - previousY) * alpha);
+
+      if (y == currentY) {
+         this.worldRow = entity.getWorldRow();
+         this.shiftY = entity.getShiftY();
+      }
+      else {
+         this.worldRow = cellOf(y);
+         this.shiftY = this.worldRow * GameParam.TILE_SIZE - y;
+      }
+
+   }
+
+   // World Map pixel of a position (the shift is positive to the left and up).
+   private static int pixelPosition(int cell, int shift) {
+      return cell * GameParam.TILE_SIZE - shift;
+   }
+
+   // Nearest cell of a pixel position (the shift is less than the half tile).
+   private static int cellOf(int pixel) {
+      return Math.floorDiv(pixel + GameParam.TILE_SIZE / 2, GameParam.TILE_SIZE);
+   }
+
+}
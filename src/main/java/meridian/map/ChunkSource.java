@@ -0,0 +1,27 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+
+/**
+ * Supplier of the tile ids of the World Map, read piece by piece when a chunk of the
+ * map is paged in.
+ */
+public interface ChunkSource {
+
+   /**
+    * Copies the tile ids of a rectangular region of the map into the target array.
+    * The region is always inside the map.
+    *
+    * @param startCol first column of the region.
+    * @param startRow first row of the region.
+    * @param cols width of the region.
+    * @param rows height of the region.
+    * @param target array of tile ids, the region's first cell goes to index 0.
+    * @param targetStride distance of two rows in the target array.
+    */
+   void readTileIds(int startCol, int startRow, int cols, int rows, short[] target, int targetStride);
+
+}
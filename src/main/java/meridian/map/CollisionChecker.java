@@ -7,12 +7,19 @@ package meridian.map;
 
 import meridian.entity.Direction;
 import meridian.entity.Entity;
-import meridian.tile.Tile;
 
 public class CollisionChecker {
 
+   private static final int LEFT = Direction.LEFT.ordinal();
+   private static final int RIGHT = Direction.RIGHT.ordinal();
+   private static final int UP = Direction.UP.ordinal();
+   private static final int DOWN = Direction.DOWN.ordinal();
+
    MapManager mapManager;
 
+   // Solid cells of the current map for the batches - built for a new map, the tile changes update it.
+   private SolidityMap solidity;
+
    public CollisionChecker(MapManager mapManager) {
       this.mapManager = mapManager;
    }
@@ -31,11 +38,22 @@ public class CollisionChecker {
     * @return boolean 'true': can move -- 'false': cannot move in that direction.
     */
    public boolean canMove(Entity entity, Direction direction) {
+      return canMove(entity.getWorldCol(), entity.getWorldRow(), entity.getShiftX(), entity.getShiftY(), direction);
+   }
 
-      int entityPosX = entity.getWorldCol();
-      int entityPosY = entity.getWorldRow();
-      int shiftX = entity.getShiftX();
-      int shiftY = entity.getShiftY();
+   /**
+    * The same check by a position without Entity (the packed entities of the EntityStore).
+    * Only reads the map - more threads can check when the cells around the positions are
+    * resident.
+    *
+    * @param entityPosX column of the entity.
+    * @param entityPosY row of the entity.
+    * @param shiftX horizontal shift of the entity.
+    * @param shiftY vertical shift of the entity.
+    * @param direction main direction of displacement under investigation.
+    * @return boolean 'true': can move -- 'false': cannot move in that direction.
+    */
+   public boolean canMove(int entityPosX, int entityPosY, int shiftX, int shiftY, Direction direction) {
 
       int nextPosX = entityPosX;
       int nextPosY = entityPosY;
@@ -123,10 +141,77 @@ public class CollisionChecker {
       return result;
    }
 
+   /**
+    * The canMove check of many entities at once (the same result for every entity as the
+    * check of the entity alone). Only the solidity bitset of the map is read, so the ranges
+    * of the arrays can be checked by more threads at the same time.
+    *
+    * @param start first checked entity.
+    * @param end end of the checked entities (exclusive).
+    * @param cols columns of the entities.
+    * @param rows rows of the entities.
+    * @param shiftXs horizontal shifts of the entities.
+    * @param shiftYs vertical shifts of the entities.
+    * @param directions Direction ordinals of the moves (negative: no move - not allowed).
+    * @param allowed results: true - can move, false - cannot move in that direction.
+    */
+   public void canMove(int start, int end, int[] cols, int[] rows, int[] shiftXs, int[] shiftYs,
+                       byte[] directions, boolean[] allowed) {
+      SolidityMap solid = currentSolidity();
+      int top = mapManager.getWorldTop();
+      int bottom = mapManager.getWorldBottom();
+      int left = mapManager.getWorldLeft();
+      int right = mapManager.getWorldRight();
+
+      for (int i = start; i < end; i++) {
+         int direction = directions[i];
+         int col = cols[i];
+         int row = rows[i];
+         int shiftX = shiftXs[i];
+         int shiftY = shiftYs[i];
+
+         if (direction == UP || direction == DOWN) {
+            int nextRow = row;
+            if (direction == UP && shiftY >= 0) {
+               nextRow--;
+            }
+            else if (direction == DOWN && shiftY <= 0) {
+               nextRow++;
+            }
+            int neighbourCol = shiftX < 0 ? col + 1 : shiftX > 0 ? col - 1 : col;
+            allowed[i] = nextRow >= top && nextRow < bottom &&
+                  !solid.isSolid(col, nextRow) && !solid.isSolid(neighbourCol, nextRow);
+         }
+         else if (direction == LEFT || direction == RIGHT) {
+            int nextCol = col;
+            if (direction == LEFT && shiftX >= 0) {
+               nextCol--;
+            }
+            else if (direction == RIGHT && shiftX <= 0) {
+               nextCol++;
+            }
+            int neighbourRow = shiftY < 0 ? row + 1 : shiftY > 0 ? row - 1 : row;
+            allowed[i] = nextCol >= left && nextCol < right &&
+                  !solid.isSolid(nextCol, row) && !solid.isSolid(nextCol, neighbourRow);
+         }
+         else {
+            allowed[i] = false;
+         }
+      }
+
+   }
+
+   // Solidity bitset of the current map - the first check on a new map builds it.
+   public synchronized SolidityMap currentSolidity() {
+      MapGrid grid = this.mapManager.getGrid();
+      if (this.solidity == null || !this.solidity.isCurrent(grid)) {
+         this.solidity = SolidityMap.of(grid);
+      }
+      return this.solidity;
+   }
+
    private boolean isCellTraverseable(int nextPosX, int nextPosY) {
-      MapCell[][] cells = this.mapManager.getCells();
-      Tile tile = cells[nextPosY][nextPosX].getTile();
-      return !tile.isSolid();
+      return !this.mapManager.getGrid().isSolid(nextPosX, nextPosY);
    }
 
 }
\ No newline at end of file
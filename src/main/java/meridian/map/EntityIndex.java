@@ -0,0 +1,282 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+import meridian.entity.Entity;
+
+import java.util.Arrays;
+
+
+/**
+ * Spatial index of the entities (monsters, items, decorations and the player) of the World
+ * Map - one bucket per cell. The buckets are doubly linked lists of int slots in flat
+ * arrays, so finding the entities of a cell, moving and removing an entity are O(1) and do
+ * not allocate (only adding over the capacity grows the arrays).
+ *
+ * An entity is identified by its slot (returned by add) until it is removed - the slot of a
+ * removed entity is reused by the next added one. Not thread safe: the index is used by the
+ * game thread only.
+ */
+public class EntityIndex {
+
+   // End of the lists, not indexed entity.
+   public static final int NONE = -1;
+
+   private static final int DEFAULT_CAPACITY = 64;
+
+   // Visits the found entities of the queries.
+   public interface Visitor {
+      void visit(int slot, Entity entity);
+   }
+
+   @Getter
+   private final int width;
+   @Getter
+   private final int height;
+
+   // First slot of the cells (by 'row * width + col').
+   private final int[] cellHeads;
+
+   // Slots: entity, cell, neighbours in the list of the cell (the free slots are linked by 'next').
+   private Entity[] entities;
+   private int[] cells;
+   private int[] next;
+   private int[] previous;
+   private int freeHead = NONE;
+   private int usedSlots;
+
+   @Getter
+   private int size;
+
+
+   public EntityIndex(int width, int height) {
+      this(width, height, DEFAULT_CAPACITY);
+   }
+
+   /**
+    * @param width columns of the map.
+    * @param height rows of the map.
+    * @param capacity expected number of the entities (the index grows beyond it).
+    */
+   public EntityIndex(int width, int height, int capacity) {
+      this.width = width;
+      this.height = height;
+      this.cellHeads = new int[width * height];
+      Arrays.fill(this.cellHeads, NONE);
+
+      capacity = Math.max(1, capacity);
+      this.entities = new Entity[capacity];
+      this.cells = new int[capacity];
+      this.next = new int[capacity];
+      this.previous = new int[capacity];
+   }
+
+
+   /**
+    * Indexes an entity at its current cell.
+    *
+    * @param entity added entity.
+    * @return slot of the entity.
+    */
+   public int add(Entity entity) {
+      int cell = cellOf(entity.getWorldCol(), entity.getWorldRow());
+
+      int slot;
+      if (this.freeHead != NONE) {
+         slot = this.freeHead;
+         this.freeHead = this.next[slot];
+      }
+      else {
+         if (this.usedSlots == this.entities.length) {
+            grow();
+         }
+         slot = this.usedSlots++;
+      }
+
+      this.entities[slot] = entity;
+      link(slot, cell);
+      this.size++;
+      return slot;
+   }
+
+   public void remove(int slot) {
+      checkSlot(slot);
+      unlink(slot);
+      this.entities[slot] = null;
+      this.cells[slot] = NONE;
+      this.next[slot] = this.freeHead;
+      this.freeHead = slot;
+      this.size--;
+   }
+
+   // Follows the current cell of the entity (after its movement).
+   public void update(int slot) {
+      checkSlot(slot);
+      Entity entity = this.entities[slot];
+      move(slot, entity.getWorldCol(), entity.getWorldRow());
+   }
+
+   // Moves the entity into a cell - only the lists of the two cells change.
+   public void move(int slot, int col, int row) {
+      checkSlot(slot);
+      int cell = cellOf(col, row);
+      if (this.cells[slot] != cell) {
+         unlink(slot);
+         link(slot, cell);
+      }
+   }
+
+   public Entity get(int slot) {
+      checkSlot(slot);
+      return this.entities[slot];
+   }
+
+   // The first entity of a cell - the rest of them are reached by 'nextInCell' (NONE: no more).
+   public int firstAt(int col, int row) {
+      if (col < 0 || row < 0 || col >= this.width || row >= this.height) {
+         return NONE;
+      }
+      return this.cellHeads[row * this.width + col];
+   }
+
+   public int nextInCell(int slot) {
+      return this.next[slot];
+   }
+
+   public boolean isOccupied(int col, int row) {
+      return firstAt(col, row) != NONE;
+   }
+
+   /**
+    * Visits the entities of a rectangle of cells (for example the screen at the drawing).
+    *
+    * @return number of the visited entities.
+    */
+   public int forEachIn(int firstCol, int firstRow, int lastCol, int lastRow, Visitor visitor) {
+      firstCol = Math.max(0, firstCol);
+      firstRow = Math.max(0, firstRow);
+      lastCol = Math.min(this.width - 1, lastCol);
+      lastRow = Math.min(this.height - 1, lastRow);
+
+      int found = 0;
+      for (int row = firstRow; row <= lastRow; row++) {
+         int rowStart = row * this.width;
+         for (int col = firstCol; col <= lastCol; col++) {
+            for (int slot = this.cellHeads[rowStart + col]; slot != NONE; slot = this.next[slot]) {
+               visitor.visit(slot, this.entities[slot]);
+               found++;
+            }
+         }
+      }
+      return found;
+   }
+
+   /**
+    * Visits the entities in the circle of a cell (for example the aggro range of a monster).
+    * When the circle has more cells than the index has entities, the entities are checked
+    * instead of the cells.
+    *
+    * @param col column of the center.
+    * @param row row of the center.
+    * @param radius radius in cells.
+    * @return number of the visited entities.
+    */
+   public int forEachWithin(int col, int row, int radius, Visitor visitor) {
+      int radiusSquare = radius * radius;
+      int side = 2 * radius + 1;
+
+      int found = 0;
+      if ((long) side * side > this.usedSlots) {
+         for (int slot = 0; slot < this.usedSlots; slot++) {
+            int cell = this.cells[slot];
+            if (cell != NONE && isWithin(cell % this.width - col, cell / this.width - row, radiusSquare)) {
+               visitor.visit(slot, this.entities[slot]);
+               found++;
+            }
+         }
+         return found;
+      }
+
+      int firstRow = Math.max(0, row - radius);
+      int lastRow = Math.min(this.height - 1, row + radius);
+      for (int r = firstRow; r <= lastRow; r++) {
+         int dy = r - row;
+         // Half width of the circle in this row.
+         int halfWidth = (int) Math.sqrt(radiusSquare - dy * dy);
+         int firstCol = Math.max(0, col - halfWidth);
+         int lastCol = Math.min(this.width - 1, col + halfWidth);
+         int rowStart = r * this.width;
+         for (int c = firstCol; c <= lastCol; c++) {
+            for (int slot = this.cellHeads[rowStart + c]; slot != NONE; slot = this.next[slot]) {
+               visitor.visit(slot, this.entities[slot]);
+               found++;
+            }
+         }
+      }
+      return found;
+   }
+
+   // Removes all the entities (the capacity is kept).
+   public void clear() {
+      Arrays.fill(this.cellHeads, NONE);
+      Arrays.fill(this.entities, 0, this.usedSlots, null);
+      this.freeHead = NONE;
+      this.usedSlots = 0;
+      this.size = 0;
+   }
+
+   private static boolean isWithin(int dx, int dy, int radiusSquare) {
+      return dx * dx + dy * dy <= radiusSquare;
+   }
+
+   private int cellOf(int col, int row) {
+      if (col < 0 || row < 0 || col >= this.width || row >= this.height) {
+         throw new IllegalStateException("Entity outside of the map: " + col + "," + row);
+      }
+      return row * this.width + col;
+   }
+
+   private void checkSlot(int slot) {
+      if (slot < 0 || slot >= this.usedSlots || this.entities[slot] == null) {
+         throw new IllegalStateException("Not indexed entity slot: " + slot);
+      }
+   }
+
+   // Inserts the slot at the head of the list of the cell.
+   private void link(int slot, int cell) {
+      int head = this.cellHeads[cell];
+      this.cells[slot] = cell;
+      this.previous[slot] = NONE;
+      this.next[slot] = head;
+      if (head != NONE) {
+         this.previous[head] = slot;
+      }
+      this.cellHeads[cell] = slot;
+   }
+
+   private void unlink(int slot) {
+      int before = this.previous[slot];
+      int after = this.next[slot];
+      if (before != NONE) {
+         this.next[before] = after;
+      }
+      else {
+         this.cellHeads[this.cells[slot]] = after;
+      }
+      if (after != NONE) {
+         this.previous[after] = before;
+      }
+   }
+
+   private void grow() {
+      int capacity = this.entities.length * 2;
+      this.entities = Arrays.copyOf(this.entities, capacity);
+      this.cells = Arrays.copyOf(this.cells, capacity);
+      this.next = Arrays.copyOf(this.next, capacity);
+      this.previous = Arrays.copyOf(this.previous, capacity);
+   }
+
+}
@@ -0,0 +1,62 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.light.LightBuffer;
+
+
+/**
+ * Calculates which cells around a viewpoint (the player, a light) are covered by other
+ * cells. The implementations are immutable, so one instance can be used by more threads.
+ */
+public interface FieldOfView {
+
+   // Algorithms - selected by the 'fieldOfView' of the map config.
+   String SHADE_MATRIX = "shadeMatrix";
+   String SHADOWCASTING = "shadowcasting";
+
+
+   /**
+    * Shared field of view of an algorithm.
+    *
+    * @param algorithm SHADE_MATRIX or SHADOWCASTING.
+    * @param reachCols farthest examined column from the viewpoint.
+    * @param reachRows farthest examined row from the viewpoint.
+    * @return the field of view of the reach.
+    */
+   static FieldOfView forReach(String algorithm, int reachCols, int reachRows) {
+      if (SHADE_MATRIX.equals(algorithm)) {
+         return ShadeMatrix.forReach(reachCols, reachRows);
+      }
+      if (SHADOWCASTING.equals(algorithm)) {
+         return ShadowcastFieldOfView.forReach(reachCols, reachRows);
+      }
+      throw new IllegalStateException("Unknown field of view algorithm: " + algorithm);
+   }
+
+   String getAlgorithm();
+
+   // Farthest examined cells from the viewpoint - the cells out of it are not changed.
+   int getReachCols();
+
+   int getReachRows();
+
+   // Farthest cells read from the map (the blockers) - they must be resident before more threads read them.
+   int getReadCols();
+
+   int getReadRows();
+
+   /**
+    * Darkens the light values of the cells which are covered by other cells from the
+    * viewpoint.
+    *
+    * @param grid cells of the World Map.
+    * @param viewerCol column of the viewpoint.
+    * @param viewerRow row of the viewpoint.
+    * @param buffer light values of the cells around the viewpoint.
+    */
+   void updateMapCellsVisibility(MapGrid grid, int viewerCol, int viewerRow, LightBuffer buffer);
+
+}
@@ -6,6 +6,10 @@ package meridian.map;
 
 import lombok.Getter;
 import lombok.Setter;
+import meridian.light.LightConfig;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
@@ -17,4 +21,13 @@ public class Map {
    private int sizeX;
    private int sizeY;
 
+   // Format of the map file: "text" ('.map') or "binary" ('.dmap') - def: text
+   private String mapFormat = MapManager.TEXT_MAP_FORMAT;
+
+   // Shadow algorithm of the map: "shadeMatrix" (soft shadows) or "shadowcasting" (sharp shadows) - def: shadeMatrix
+   private String fieldOfView = FieldOfView.SHADE_MATRIX;
+
+   // Static lights (torches...) placed on the map.
+   private List<LightConfig> lights = new ArrayList<>();
+
 }
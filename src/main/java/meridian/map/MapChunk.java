@@ -0,0 +1,65 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+
+/**
+ * Fixed size square piece of the World Map. The cell properties are stored in flat
+ * primitive arrays indexed by 'localRow * SIZE + localCol'.
+ */
+class MapChunk {
+
+   static final int SHIFT = 5;
+   static final int SIZE = 1 << SHIFT;
+   static final int MASK = SIZE - 1;
+
+   // Position of the chunk in chunk units.
+   final int chunkCol;
+   final int chunkRow;
+
+   // Cell properties - see MapGrid.
+   final short[] tileIds = new short[SIZE * SIZE];
+   final long[] solidBits = new long[SIZE * SIZE / 64];
+   final float[] transparency = new float[SIZE * SIZE];
+   final float[] currentOpacity = new float[SIZE * SIZE];
+   final float[] visibleOpacity = new float[SIZE * SIZE];
+
+   // Tiles changed after loading (the chunk cannot be reloaded from the source).
+   boolean modified;
+
+   // Read since it was moved to the head of the list - set by the reads of any thread.
+   boolean referenced;
+
+   // Neighbours in the least recently used list of the resident chunks.
+   MapChunk prev;
+   MapChunk next;
+
+
+   MapChunk(int chunkCol, int chunkRow) {
+      this.chunkCol = chunkCol;
+      this.chunkRow = chunkRow;
+   }
+
+
+   static int localIndex(int col, int row) {
+      return ((row & MASK) << SHIFT) | (col & MASK);
+   }
+
+   void setCell(int index, int tileId, boolean solid, float tileTransparency) {
+      this.tileIds[index] = (short) tileId;
+      this.transparency[index] = tileTransparency;
+      if (solid) {
+         this.solidBits[index >> 6] |= 1L << index;
+      }
+      else {
+         this.solidBits[index >> 6] &= ~(1L << index);
+      }
+   }
+
+   boolean isSolid(int index) {
+      return (this.solidBits[index >> 6] & (1L << index)) != 0;
+   }
+
+}
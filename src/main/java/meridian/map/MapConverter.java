@@ -0,0 +1,78 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Command line converter of the text '.map' files into the binary '.dmap' format.
+ *
+ * <pre>
+ *  usage: MapConverter input.map output.dmap [width height]
+ * </pre>
+ *
+ * Without the size arguments the size is taken from the text file (ids of the first row
+ * and number of the rows).
+ */
+public class MapConverter {
+
+   public static void main(String[] args) {
+      if (args.length != 2 && args.length != 4) {
+         System.err.println("usage: MapConverter input.map output.dmap [width height]");
+         System.exit(1);
+      }
+
+      Path input = Path.of(args[0]);
+      Path output = Path.of(args[1]);
+
+      int[] size = args.length == 4
+            ? new int[] { Integer.parseInt(args[2]), Integer.parseInt(args[3]) }
+            : measureTextMap(input);
+
+      convert(input, output, size[0], size[1]);
+      System.out.println("Converted " + input + " (" + size[0] + "x" + size[1] + ") into " + output);
+   }
+
+   public static void convert(Path input, Path output, int width, int height) {
+      try (InputStream inputStream = Files.newInputStream(input)) {
+         TextMapSource source = new TextMapSource(inputStream, width, height);
+         BinaryMapFormat.write(output, width, height, source.getTileIds());
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Cannot convert map file: " + e);
+      }
+   }
+
+   // Width and height of a text map file.
+   static int[] measureTextMap(Path input) {
+      int width = 0;
+      int height = 0;
+
+      try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+               continue;
+            }
+            if (height == 0) {
+               width = line.trim().split(" +").length;
+            }
+            height++;
+         }
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Cannot read map file: " + e);
+      }
+
+      return new int[] { width, height };
+   }
+
+}
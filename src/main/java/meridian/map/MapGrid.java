@@ -0,0 +1,320 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+import meridian.tile.Tile;
+import meridian.tile.TileManager;
+
+
+/**
+ * One virtual grid of the World Map cells. The cells are stored in fixed size chunks
+ * (struct of arrays, see MapChunk) which are paged in from the ChunkSource on demand and
+ * evicted by the least recently used policy when too many of them are resident.
+ */
+public class MapGrid {
+
+   public static final int VOID_CELL_ID = 9999;
+
+   // Default limit of the resident chunks (256 * 32x32 cells).
+   public static final int DEFAULT_MAX_RESIDENT_CHUNKS = 256;
+
+   @Getter
+   private final int width;
+   @Getter
+   private final int height;
+
+   // Size of the map in chunks.
+   @Getter
+   private final int chunksX;
+   @Getter
+   private final int chunksY;
+
+   @Getter
+   private final int maxResidentChunks;
+   @Getter
+   private int residentChunks;
+
+   // Increased by every tile change - caches built from the tiles compare it.
+   @Getter
+   private int version;
+
+   private final TileManager tileManager;
+   private final ChunkSource chunkSource;
+
+   // Solidity bitset of the whole map - updated by the tile changes (null: not built).
+   private SolidityMap solidity;
+
+   // Resident chunks by 'chunkRow * chunksX + chunkCol' - null: not loaded yet or evicted.
+   private final MapChunk[] directory;
+
+   // Least recently used list of the resident chunks (head: most recently used).
+   private MapChunk lruHead;
+   private MapChunk lruTail;
+
+   // -- bottom Decoration element (fountain bottom part)
+   // -- Gateway in direction to another map (-->id, x, y)
+   // -- Item here...
+   // -- Monster here...
+   // -- upper Decoration here...(doorway)
+
+
+   public MapGrid(int width, int height, TileManager tm, ChunkSource source) {
+      this(width, height, tm, source, DEFAULT_MAX_RESIDENT_CHUNKS);
+   }
+
+   public MapGrid(int width, int height, TileManager tm, ChunkSource source, int maxResidentChunks) {
+      this.width = width;
+      this.height = height;
+      this.tileManager = tm;
+      this.chunkSource = source;
+      this.maxResidentChunks = maxResidentChunks;
+
+      this.chunksX = (width + MapChunk.MASK) >> MapChunk.SHIFT;
+      this.chunksY = (height + MapChunk.MASK) >> MapChunk.SHIFT;
+      this.directory = new MapChunk[this.chunksX * this.chunksY];
+   }
+
+
+   public boolean isInside(int col, int row) {
+      return col >= 0 && row >= 0 && col < this.width && row < this.height;
+   }
+
+   /**
+    * Pages in the chunks around a position and marks them as most recently used, so
+    * they are not evicted while the viewer is near them.
+    *
+    * @param col column of the viewer.
+    * @param row row of the viewer.
+    * @param radiusCols horizontal range of the needed cells.
+    * @param radiusRows vertical range of the needed cells.
+    */
+   public void prefetch(int col, int row, int radiusCols, int radiusRows) {
+      int firstChunkCol = Math.max(0, col - radiusCols) >> MapChunk.SHIFT;
+      int firstChunkRow = Math.max(0, row - radiusRows) >> MapChunk.SHIFT;
+      int lastChunkCol = Math.min(this.width - 1, col + radiusCols) >> MapChunk.SHIFT;
+      int lastChunkRow = Math.min(this.height - 1, row + radiusRows) >> MapChunk.SHIFT;
+
+      for (int chunkRow = firstChunkRow; chunkRow <= lastChunkRow; chunkRow++) {
+         for (int chunkCol = firstChunkCol; chunkCol <= lastChunkCol; chunkCol++) {
+            MapChunk chunk = this.directory[chunkRow * this.chunksX + chunkCol];
+            if (chunk == null) {
+               loadChunk(chunkCol, chunkRow);
+            }
+            else {
+               touch(chunk);
+            }
+         }
+      }
+
+   }
+
+   /**
+    * Checks whether the chunks around a position are resident - reading their cells does
+    * not page in (so it does not change the grid and can be done by more threads).
+    *
+    * @param col column of the center.
+    * @param row row of the center.
+    * @param radiusCols horizontal range of the cells.
+    * @param radiusRows vertical range of the cells.
+    * @return true if every chunk of the range is resident.
+    */
+   public boolean isResident(int col, int row, int radiusCols, int radiusRows) {
+      int firstChunkCol = Math.max(0, col - radiusCols) >> MapChunk.SHIFT;
+      int firstChunkRow = Math.max(0, row - radiusRows) >> MapChunk.SHIFT;
+      int lastChunkCol = Math.min(this.width - 1, col + radiusCols) >> MapChunk.SHIFT;
+      int lastChunkRow = Math.min(this.height - 1, row + radiusRows) >> MapChunk.SHIFT;
+
+      for (int chunkRow = firstChunkRow; chunkRow <= lastChunkRow; chunkRow++) {
+         for (int chunkCol = firstChunkCol; chunkCol <= lastChunkCol; chunkCol++) {
+            if (this.directory[chunkRow * this.chunksX + chunkCol] == null) {
+               return false;
+            }
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Copies the solid cells of the whole map into a row major bitset (bit 'col & 63' of the
+    * word 'row * wordsPerRow + col / 64'). The resident chunks are copied, the others are
+    * read from the source without paging them in (the resident chunks are not evicted).
+    *
+    * @param target bitset of the map size.
+    * @param wordsPerRow words of a row in the bitset.
+    */
+   void copySolidBits(long[] target, int wordsPerRow) {
+      for (int chunkRow = 0; chunkRow < this.chunksY; chunkRow++) {
+         for (int chunkCol = 0; chunkCol < this.chunksX; chunkCol++) {
+            MapChunk chunk = this.directory[chunkRow * this.chunksX + chunkCol];
+            if (chunk == null) {
+               chunk = readChunk(chunkCol, chunkRow);
+            }
+
+            // A chunk row is half a word of the chunk - and half a word of the target.
+            int rows = Math.min(MapChunk.SIZE, this.height - (chunkRow << MapChunk.SHIFT));
+            int word = chunkCol >> 1;
+            int bitShift = (chunkCol & 1) << MapChunk.SHIFT;
+            for (int localRow = 0; localRow < rows; localRow++) {
+               long bits = (chunk.solidBits[localRow >> 1] >>> ((localRow & 1) << MapChunk.SHIFT)) & 0xFFFFFFFFL;
+               int row = (chunkRow << MapChunk.SHIFT) + localRow;
+               target[row * wordsPerRow + word] |= bits << bitShift;
+            }
+         }
+      }
+   }
+
+   public void setCell(int col, int row, int tileId, boolean solid, float tileTransparency) {
+      MapChunk chunk = chunkAt(col, row);
+      chunk.setCell(MapChunk.localIndex(col, row), tileId, solid, tileTransparency);
+
+      // The source does not know about the change, so this chunk must stay resident.
+      chunk.modified = true;
+      this.version++;
+      if (this.solidity != null) {
+         this.solidity.update(col, row, solid, this.version);
+      }
+   }
+
+   // The bitset built from this version of the grid - the older one is not updated any more.
+   void attachSolidity(SolidityMap map) {
+      this.solidity = map;
+   }
+
+   public int getTileId(int col, int row) {
+      return chunkAt(col, row).tileIds[MapChunk.localIndex(col, row)];
+   }
+
+   public boolean isSolid(int col, int row) {
+      return chunkAt(col, row).isSolid(MapChunk.localIndex(col, row));
+   }
+
+   public float getTransparency(int col, int row) {
+      return chunkAt(col, row).transparency[MapChunk.localIndex(col, row)];
+   }
+
+   public float getCurrentOpacity(int col, int row) {
+      return chunkAt(col, row).currentOpacity[MapChunk.localIndex(col, row)];
+   }
+
+   public void setCurrentOpacity(int col, int row, float opacity) {
+      chunkAt(col, row).currentOpacity[MapChunk.localIndex(col, row)] = opacity;
+   }
+
+   public float getVisibleOpacity(int col, int row) {
+      return chunkAt(col, row).visibleOpacity[MapChunk.localIndex(col, row)];
+   }
+
+   public void setVisibleOpacity(int col, int row, float opacity) {
+      chunkAt(col, row).visibleOpacity[MapChunk.localIndex(col, row)] = opacity;
+   }
+
+   private MapChunk chunkAt(int col, int row) {
+      int chunkCol = col >> MapChunk.SHIFT;
+      int chunkRow = row >> MapChunk.SHIFT;
+      MapChunk chunk = this.directory[chunkRow * this.chunksX + chunkCol];
+      if (chunk == null) {
+         chunk = loadChunk(chunkCol, chunkRow);
+      }
+      else if (!chunk.referenced) {
+         chunk.referenced = true;
+      }
+      return chunk;
+   }
+
+   private MapChunk loadChunk(int chunkCol, int chunkRow) {
+      // Make room for the new chunk - modified chunks are never evicted, the used ones get a second chance.
+      MapChunk candidate = this.lruTail;
+      while (this.residentChunks >= this.maxResidentChunks && candidate != null) {
+         MapChunk previous = candidate.prev;
+         if (candidate.referenced) {
+            touch(candidate);
+         }
+         else if (!candidate.modified) {
+            evict(candidate);
+         }
+         candidate = previous;
+      }
+
+      MapChunk chunk = readChunk(chunkCol, chunkRow);
+      this.directory[chunkRow * this.chunksX + chunkCol] = chunk;
+      this.residentChunks++;
+      linkFirst(chunk);
+
+      return chunk;
+   }
+
+   // Reads the cells of a chunk from the source (the chunk is not made resident).
+   private MapChunk readChunk(int chunkCol, int chunkRow) {
+      MapChunk chunk = new MapChunk(chunkCol, chunkRow);
+      int startCol = chunkCol << MapChunk.SHIFT;
+      int startRow = chunkRow << MapChunk.SHIFT;
+      int cols = Math.min(MapChunk.SIZE, this.width - startCol);
+      int rows = Math.min(MapChunk.SIZE, this.height - startRow);
+      this.chunkSource.readTileIds(startCol, startRow, cols, rows, chunk.tileIds, MapChunk.SIZE);
+
+      // Resolve the tile properties of the cells.
+      for (int row = 0; row < rows; row++) {
+         for (int col = 0; col < cols; col++) {
+            int index = (row << MapChunk.SHIFT) | col;
+            int tileId = chunk.tileIds[index];
+
+            if (tileId != VOID_CELL_ID) {
+               Tile tile = this.tileManager.getTileByIndex(tileId);
+               chunk.setCell(index, tile.getId(), tile.isSolid(), tile.getTileTransparency());
+            }
+            else { // void cell...!
+               chunk.setCell(index, VOID_CELL_ID, false, 0.0f);
+            }
+         }
+      }
+
+      return chunk;
+   }
+
+   private void evict(MapChunk chunk) {
+      unlink(chunk);
+      this.directory[chunk.chunkRow * this.chunksX + chunk.chunkCol] = null;
+      this.residentChunks--;
+   }
+
+   private void touch(MapChunk chunk) {
+      chunk.referenced = false;
+      if (chunk != this.lruHead) {
+         unlink(chunk);
+         linkFirst(chunk);
+      }
+   }
+
+   private void linkFirst(MapChunk chunk) {
+      chunk.prev = null;
+      chunk.next = this.lruHead;
+      if (this.lruHead != null) {
+         this.lruHead.prev = chunk;
+      }
+      this.lruHead = chunk;
+      if (this.lruTail == null) {
+         this.lruTail = chunk;
+      }
+   }
+
+   private void unlink(MapChunk chunk) {
+      if (chunk.prev != null) {
+         chunk.prev.next = chunk.next;
+      }
+      else {
+         this.lruHead = chunk.next;
+      }
+      if (chunk.next != null) {
+         chunk.next.prev = chunk.prev;
+      }
+      else {
+         this.lruTail = chunk.prev;
+      }
+      chunk.prev = null;
+      chunk.next = null;
+   }
+
+}
@@ -0,0 +1,182 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+import meridian.main.GameParam;
+import meridian.tile.TileManager;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * Pre-rendered tiles of the screen area and a margin around it. The tiles are drawn once
+ * into an opaque (screen compatible) image, so drawing the map on the screen is a single
+ * image copy. Only the cells scrolled into the cached area and the cells whose tile
+ * was changed are rendered again.
+ */
+public class MapLayerCache {
+
+   // Extra cells around the drawn screen area (on every side).
+   public static final int MARGIN = 4;
+
+   // Size of the cached area in cells.
+   @Getter
+   private final int cols = GameParam.MAX_SCREEN_COL + 2 + MARGIN * 2;
+   @Getter
+   private final int rows = GameParam.MAX_SCREEN_ROW + 2 + MARGIN * 2;
+
+   private final TileManager tileManager;
+
+   @Getter
+   private final BufferedImage image;
+
+   // Tile ids of the rendered cells (to find the changed cells).
+   private final short[] renderedTileIds = new short[cols * rows];
+   private final short[] scrolledTileIds = new short[cols * rows];
+
+   // World Map cell of the top-left corner of the image.
+   @Getter
+   private int originCol;
+   @Getter
+   private int originRow;
+
+   // Rendered grid and its version - any other grid or version must be checked.
+   private MapGrid renderedGrid;
+   private int renderedVersion;
+
+
+   public MapLayerCache(TileManager tm) {
+      this.tileManager = tm;
+
+      this.image = TileManager.createCompatibleImage(cols * GameParam.TILE_SIZE, rows * GameParam.TILE_SIZE,
+            Transparency.OPAQUE);
+   }
+
+
+   /**
+    * Makes the image cover the given area of the World Map and be up to date.
+    *
+    * @param grid cells of the World Map.
+    * @param firstCol first column of the needed area.
+    * @param firstRow first row of the needed area.
+    * @param lastCol last column of the needed area.
+    * @param lastRow last row of the needed area.
+    */
+   public void update(MapGrid grid, int firstCol, int firstRow, int lastCol, int lastRow) {
+      boolean covered = firstCol >= originCol && firstRow >= originRow &&
+            lastCol < originCol + cols && lastRow < originRow + rows;
+
+      if (grid != renderedGrid) {
+         // Other map - everything must be rendered.
+         originCol = (firstCol + lastCol) / 2 - cols / 2;
+         originRow = (firstRow + lastRow) / 2 - rows / 2;
+         renderedGrid = grid;
+         renderedVersion = grid.getVersion();
+         renderArea(0, 0, cols, rows);
+         return;
+      }
+
+      if (!covered) {
+         scrollTo((firstCol + lastCol) / 2 - cols / 2, (firstRow + lastRow) / 2 - rows / 2);
+      }
+
+      if (renderedVersion != grid.getVersion()) {
+         renderChangedCells();
+         renderedVersion = grid.getVersion();
+      }
+
+   }
+
+   // Moves the cached area - the still covered part of the image is copied.
+   private void scrollTo(int newOriginCol, int newOriginRow) {
+      int deltaCol = newOriginCol - originCol;
+      int deltaRow = newOriginRow - originRow;
+      originCol = newOriginCol;
+      originRow = newOriginRow;
+
+      if (Math.abs(deltaCol) >= cols || Math.abs(deltaRow) >= rows) {
+         renderArea(0, 0, cols, rows);
+         return;
+      }
+
+      Graphics2D g2 = image.createGraphics();
+      g2.copyArea(0, 0, image.getWidth(), image.getHeight(),
+            -deltaCol * GameParam.TILE_SIZE, -deltaRow * GameParam.TILE_SIZE);
+      g2.dispose();
+
+      // Move the rendered tile ids as well.
+      short[] previousIds = scrolledTileIds;
+      System.arraycopy(renderedTileIds, 0, previousIds, 0, previousIds.length);
+      for (int row = 0; row < rows; row++) {
+         for (int col = 0; col < cols; col++) {
+            int previousCol = col + deltaCol;
+            int previousRow = row + deltaRow;
+            if (previousCol >= 0 && previousCol < cols && previousRow >= 0 && previousRow < rows) {
+               renderedTileIds[row * cols + col] = previousIds[previousRow * cols + previousCol];
+            }
+         }
+      }
+
+      // Render the uncovered column and row strips.
+      if (deltaCol > 0) {
+         renderArea(cols - deltaCol, 0, cols, rows);
+      }
+      else if (deltaCol < 0) {
+         renderArea(0, 0, -deltaCol, rows);
+      }
+      if (deltaRow > 0) {
+         renderArea(0, rows - deltaRow, cols, rows);
+      }
+      else if (deltaRow < 0) {
+         renderArea(0, 0, cols, -deltaRow);
+      }
+
+   }
+
+   private void renderChangedCells() {
+      Graphics2D g2 = image.createGraphics();
+      for (int row = 0; row < rows; row++) {
+         for (int col = 0; col < cols; col++) {
+            if (renderedTileIds[row * cols + col] != tileIdAt(originCol + col, originRow + row)) {
+               renderCell(g2, col, row);
+            }
+         }
+      }
+      g2.dispose();
+   }
+
+   // Renders the cells of the image from (startCol, startRow) to (endCol, endRow) exclusive.
+   private void renderArea(int startCol, int startRow, int endCol, int endRow) {
+      Graphics2D g2 = image.createGraphics();
+      for (int row = startRow; row < endRow; row++) {
+         for (int col = startCol; col < endCol; col++) {
+            renderCell(g2, col, row);
+         }
+      }
+      g2.dispose();
+   }
+
+   private void renderCell(Graphics2D g2, int col, int row) {
+      int tileId = tileIdAt(originCol + col, originRow + row);
+      int drawX = col * GameParam.TILE_SIZE;
+      int drawY = row * GameParam.TILE_SIZE;
+
+      // Void cells and cells outside the World Map are empty.
+      g2.setColor(GameParam.DEFAULT_BACKGROUND);
+      g2.fillRect(drawX, drawY, GameParam.TILE_SIZE, GameParam.TILE_SIZE);
+      if (tileId != MapGrid.VOID_CELL_ID) {
+         tileManager.drawTile(g2, tileId, drawX, drawY);
+      }
+
+      renderedTileIds[row * cols + col] = (short) tileId;
+   }
+
+   private int tileIdAt(int col, int row) {
+      return renderedGrid.isInside(col, row) ? renderedGrid.getTileId(col, row) : MapGrid.VOID_CELL_ID;
+   }
+
+}
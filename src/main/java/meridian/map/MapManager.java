@@ -9,26 +9,33 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import meridian.entity.Player;
+import meridian.light.LightConfig;
+import meridian.light.LightSource;
+import meridian.light.LightingEngine;
 import meridian.main.GameParam;
-import meridian.tile.Tile;
 import meridian.tile.TileManager;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 
 @Getter
 public class MapManager {
 
 
+   public static final String TEXT_MAP_FORMAT = "text";
+   public static final String BINARY_MAP_FORMAT = "binary";
+
    private static final String MAP_LIST_FILE = "/maps/map_list.json";
-   private static final int VOID_CELL_ID = 9999;
+
+   // Extra cells around the screen which are kept loaded.
+   private static final int MAP_CHUNK_MARGIN = 32;
 
    private final TileManager tileManager;
    private final ShadeMatrix shadeMatrix;
@@ -45,17 +52,41 @@ public class MapManager {
    // list of loadable maps data
    List<Map> maps;
 
-   // Storing all information of World Map in MapCells
-   MapCell[][] cells;
+   // Storing all information of World Map in flat cell arrays
+   MapGrid grid;
+
+   // Monsters, items and decorations (and the player) of the map by their cells.
+   private EntityIndex entityIndex;
+
+   // Calculates the visible opacity of the cells.
+   private final LightingEngine lightingEngine;
+
+   // Pre-rendered tiles around the screen - created at the first drawing (none in headless runs).
+   private MapLayerCache layerCache;
+
+   // Darkness of the drawn cells.
+   private final ShadeMask shadeMask = new ShadeMask(GameParam.MAX_SCREEN_COL + 2, GameParam.MAX_SCREEN_ROW + 2);
 
    public MapManager(TileManager tm, ShadeMatrix sm) {
+      this(tm, sm, readMapList(), ForkJoinPool.commonPool());
+   }
+
+   /**
+    * @param tm tiles of the maps.
+    * @param sm shade matrix of the sight.
+    * @param maps loadable maps (read only - the list can be shared by more managers).
+    * @param lightPool pool of the light calculation, null: the lights are calculated on the calling thread.
+    */
+   public MapManager(TileManager tm, ShadeMatrix sm, List<Map> maps, ForkJoinPool lightPool) {
       this.tileManager = tm;
       this.shadeMatrix = sm;
-      this.maps = this.init();
+      this.lightingEngine = new LightingEngine(sm, lightPool);
+      this.maps = maps;
    }
 
-   private List<Map> init() {
-      try (InputStream inputStream = getClass().getResourceAsStream(MAP_LIST_FILE)) {
+   // Reads the list of the loadable maps.
+   public static List<Map> readMapList() {
+      try (InputStream inputStream = MapManager.class.getResourceAsStream(MAP_LIST_FILE)) {
          assert inputStream != null;
          try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
               BufferedReader reader = new BufferedReader(streamReader)) {
@@ -85,109 +116,130 @@ public class MapManager {
          if (map.getId() == mapId) {
             this.mapWidth = map.getSizeX();
             this.mapHeight = map.getSizeY();
-            this.currentMapId = map.getId();
 
             // Load Map Tile set images
             this.tileManager.loadTiles(map.getTileSetName());
 
-            // Create new Map Cells array by row/col and load all map information.
-            this.cells = new MapCell[map.getSizeY()][map.getSizeX()];
-            loadMapData("/maps/" + map.getMapFileName());
-
-            // Define World Map edges.
-            this.worldLeft = 0;
-            this.worldTop = 0;
-            this.worldRight = this.mapWidth;
-            this.worldBottom = this.mapHeight;
+            // Create new Map Grid by width/height - its chunks are loaded on demand.
+            loadMapData("/maps/" + map.getMapFileName(), map.getMapFormat());
+            placeMapContent(map);
 
             break;
          }
       }
    }
 
-   public void loadMapData(String mapName) {
-      try (InputStream inputStream = getClass().getResourceAsStream(mapName + ".map")) {
-         assert inputStream != null;
-         try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-              BufferedReader reader = new BufferedReader(streamReader)) {
-
-            int row = 0;
-            String line;
-            while ((line = reader.readLine()) != null) {
-
-               String[] currentRowData = line.split(" ");
-
-               int currentCol = 0;
-               while (currentCol < currentRowData.length && currentCol < cells[0].length) {
-
-                  int tileIndex = Integer.parseInt(currentRowData[currentCol]);
-                  Tile tile;
-
-                  if (tileIndex != VOID_CELL_ID) {
-                     tile = tileManager.getTileByIndex(tileIndex);
-                  }
-                  else { // void cell...!
-                     tile = new Tile();
-                     tile.setId(VOID_CELL_ID);
-                  }
+   /**
+    * Loads a map from its already opened tile ids (see openSource) - the sources are read
+    * only, so the managers of parallel games can share them (a shared tile manager must
+    * have the tile set of the map loaded already).
+    *
+    * @param map loaded map.
+    * @param source tile ids of the map.
+    */
+   public void loadMap(Map map, ChunkSource source) {
+      this.tileManager.loadTiles(map.getTileSetName());
+
+      if (source instanceof BinaryMapSource binarySource) {
+         loadGrid(source, binarySource.getWidth(), binarySource.getHeight());
+      }
+      else {
+         loadGrid(source, map.getSizeX(), map.getSizeY());
+      }
+      placeMapContent(map);
+   }
 
-                  MapCell cell = new MapCell();
-                  cell.setTile(tile);
-                  cells[row][currentCol] = cell;
+   // Opens the tile ids of a map.
+   public static ChunkSource openSource(Map map) {
+      String mapName = "/maps/" + map.getMapFileName();
+      if (BINARY_MAP_FORMAT.equals(map.getMapFormat())) {
+         return BinaryMapSource.fromResource(mapName);
+      }
+      return new TextMapSource(mapName, map.getSizeX(), map.getSizeY());
+   }
 
-                  currentCol++;
-               }
+   // Places the static lights (torches...) of the map.
+   private void placeMapContent(Map map) {
+      this.currentMapId = map.getId();
 
-               row++;
-            }
-
-         }
+      this.lightingEngine.setFieldOfView(map.getFieldOfView());
+      this.lightingEngine.clearLights();
+      for (LightConfig lc : map.getLights()) {
+         this.lightingEngine.addLight(new LightSource(lc.getCol(), lc.getRow(), lc.getRadius()));
+      }
+   }
 
+   public void loadMapData(String mapName, String mapFormat) {
+      ChunkSource source;
+      if (BINARY_MAP_FORMAT.equals(mapFormat)) {
+         // Memory mapped file - the size comes from its header.
+         BinaryMapSource binarySource = BinaryMapSource.fromResource(mapName);
+         this.mapWidth = binarySource.getWidth();
+         this.mapHeight = binarySource.getHeight();
+         source = binarySource;
       }
-      catch (IOException e) {
-         throw new IllegalStateException("Cannot initialize World Map Cells from file: " + e);
+      else {
+         source = new TextMapSource(mapName, this.mapWidth, this.mapHeight);
       }
 
+      loadGrid(source, this.mapWidth, this.mapHeight);
+   }
+
+   /**
+    * Creates the World Map Grid of a source - its chunks are loaded on demand.
+    *
+    * @param source tile ids of the map.
+    * @param width columns of the map.
+    * @param height rows of the map.
+    */
+   public void loadGrid(ChunkSource source, int width, int height) {
+      this.mapWidth = width;
+      this.mapHeight = height;
+      this.grid = new MapGrid(width, height, this.tileManager, source);
+      this.entityIndex = new EntityIndex(width, height);
+
+      // Define World Map edges.
+      this.worldLeft = 0;
+      this.worldTop = 0;
+      this.worldRight = width;
+      this.worldBottom = height;
    }
 
-   public void drawMap(Graphics2D g2, Player player) {
-      BufferedImage image;
+   public void drawMap(Graphics2D g2, Camera camera) {
       int drawX;
       int drawY;
-      Tile tile;
 
-      int startRow = player.getWorldRow() - GameParam.MAX_SCREEN_ROW / 2 - 1;
-      int startCol = player.getWorldCol() - GameParam.MAX_SCREEN_COL / 2 - 1;
+      int startRow = camera.getWorldRow() - GameParam.MAX_SCREEN_ROW / 2 - 1;
+      int startCol = camera.getWorldCol() - GameParam.MAX_SCREEN_COL / 2 - 1;
       int endRow = startRow + GameParam.MAX_SCREEN_ROW + 1;
       int endCol = startCol + GameParam.MAX_SCREEN_COL + 1;
 
-      for (int row = startRow; row <= endRow && row < cells.length; row++) {
+      // Copy the pre-rendered tiles of the screen area in one step.
+      if (layerCache == null) {
+         layerCache = new MapLayerCache(tileManager);
+      }
+      layerCache.update(grid, startCol, startRow, endCol, endRow);
+      drawX = (layerCache.getOriginCol() - startCol - 1) * GameParam.TILE_SIZE + camera.getShiftX();
+      drawY = (layerCache.getOriginRow() - startRow - 1) * GameParam.TILE_SIZE + camera.getShiftY();
+      g2.setComposite(AlphaComposite.SrcOver);
+      g2.drawImage(layerCache.getImage(), drawX, drawY, null);
+
+      // Darken the cells by their opacity (darkness over the tile is the same as transparent tile over the black background).
+      shadeMask.clear();
+      for (int row = startRow; row <= endRow && row < grid.getHeight(); row++) {
          if (row < 0) continue;
-         drawY = (row - startRow - 1) * GameParam.TILE_SIZE + player.getShiftY();
 
-         for (int col = startCol; col <= endCol && col < cells[row].length; col++) {
+         for (int col = startCol; col <= endCol && col < grid.getWidth(); col++) {
             if (col < 0) continue;
 
-            tile = cells[row][col].getTile();
-            if (tile.getId() != VOID_CELL_ID) {
-               drawX = (col - startCol - 1) * GameParam.TILE_SIZE + player.getShiftX();
-
-               // Drawing current tile.
-               image = tile.getImage();
-               float calculatedOpacity = cells[row][col].getVisibleOpacity();
-               float currentOpacity = cells[row][col].getCurrentOpacity();
-               currentOpacity = delayedFade(calculatedOpacity, currentOpacity);
-               cells[row][col].setCurrentOpacity(currentOpacity);
-
-               // Set opacity of next drawing of cell.
-               g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, currentOpacity));
-               g2.drawImage(image, drawX, drawY, GameParam.TILE_SIZE, GameParam.TILE_SIZE, null);
-
+            if (grid.getTileId(col, row) != MapGrid.VOID_CELL_ID) {
+               shadeMask.setOpacity(col - startCol, row - startRow, grid.getCurrentOpacity(col, row));
             }
 
          }
 
       }
+      shadeMask.draw(g2, -GameParam.TILE_SIZE + camera.getShiftX(), -GameParam.TILE_SIZE + camera.getShiftY());
 
    }
 
@@ -208,47 +260,32 @@ public class MapManager {
    }
 
    public void updateLights(Player player) {
-      int startRow = player.getWorldRow() - GameParam.MAX_SCREEN_ROW / 2 - 1;
-      if (startRow < 0) startRow = 0;
+      updateVisibility(player);
 
+      // The drawn darkness of the cells follows the light slowly (one step per tick).
+      int startRow = player.getWorldRow() - GameParam.MAX_SCREEN_ROW / 2 - 1;
       int startCol = player.getWorldCol() - GameParam.MAX_SCREEN_COL / 2 - 1;
-      if (startCol < 0) startCol = 0;
-
-      int endRow = startRow + GameParam.MAX_SCREEN_ROW + 2;
-      if (endRow > cells.length) endRow = cells.length;
-
-      int endCol = startCol + GameParam.MAX_SCREEN_COL + 2;
-
-      // Reset opacity value of all cells to fully visible.
-      for (int row = startRow; row < endRow; row++) {
-         for (int col = startCol; col <= endCol && col < cells[row].length; col++) {
-            float distance = calculateDistance(player, row, col);
-            float opacityFactor = calculateOpacityFactor(player, distance);
-            cells[row][col].setVisibleOpacity(opacityFactor);
+      int endRow = startRow + GameParam.MAX_SCREEN_ROW + 1;
+      int endCol = startCol + GameParam.MAX_SCREEN_COL + 1;
+      for (int row = Math.max(0, startRow); row <= endRow && row < grid.getHeight(); row++) {
+         for (int col = Math.max(0, startCol); col <= endCol && col < grid.getWidth(); col++) {
+            if (grid.getTileId(col, row) != MapGrid.VOID_CELL_ID) {
+               float currentOpacity = delayedFade(grid.getVisibleOpacity(col, row), grid.getCurrentOpacity(col, row));
+               grid.setCurrentOpacity(col, row, currentOpacity);
+            }
          }
       }
 
-      // Calculate viewed opacity.
-      shadeMatrix.updateMapCellsVisibility(this.cells, player);
    }
 
-   private float calculateDistance(Player player, int row, int col) {
-      int playerX = player.getWorldCol();
-      int playerY = player.getWorldRow();
-      double value = 0.0 + (playerX - col) * (playerX - col) + (playerY - row) * (playerY - row);
-      return (float) Math.sqrt(value);
-   }
+   // Visible opacity of the cells around the player (without the drawn darkness - enough for the headless runs).
+   public void updateVisibility(Player player) {
+      // Keep the chunks around the player resident (with one chunk margin).
+      grid.prefetch(player.getWorldCol(), player.getWorldRow(),
+            GameParam.MAX_SCREEN_COL / 2 + MAP_CHUNK_MARGIN, GameParam.MAX_SCREEN_ROW / 2 + MAP_CHUNK_MARGIN);
 
-   private float calculateOpacityFactor(Player player, float distance) {
-      int sight = player.getLightCircle();
-      float result = (distance * -0.4f) + 1.0f + sight * 0.4f;
-      if (result < 0.0f) {
-         result = 0.0f;
-      }
-      if (result > 1.0f) {
-         result = 1.0f;
-      }
-      return result;
+      // Light of the player and the light sources of the map.
+      lightingEngine.update(grid, player.getWorldCol(), player.getWorldRow(), player.getLightCircle());
    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+import meridian.main.GameParam;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+
+/**
+ * Darkness of the drawn cells in one small image - one pixel per cell, its alpha is the
+ * darkness of the cell quantized to GameParam.OPACITY_LEVELS levels. The image is drawn
+ * scaled up to the cells over the tiles, so shading the map is a single drawing without
+ * composite changes and allocations.
+ */
+public class ShadeMask {
+
+   // Pixel values of the levels: level 0 fully dark, last level fully visible.
+   private static final int[] LEVEL_PIXELS = new int[GameParam.OPACITY_LEVELS];
+
+   static {
+      int rgb = GameParam.DEFAULT_BACKGROUND.getRGB() & 0x00FFFFFF;
+      for (int level = 0; level < GameParam.OPACITY_LEVELS; level++) {
+         int alpha = 255 - Math.round(255.0f * level / (GameParam.OPACITY_LEVELS - 1));
+         LEVEL_PIXELS[level] = (alpha << 24) | rgb;
+      }
+   }
+
+   @Getter
+   private final int cols;
+   @Getter
+   private final int rows;
+
+   private final BufferedImage image;
+   private final int[] pixels;
+
+
+   public ShadeMask(int cols, int rows) {
+      this.cols = cols;
+      this.rows = rows;
+      this.image = new BufferedImage(cols, rows, BufferedImage.TYPE_INT_ARGB);
+      this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+   }
+
+
+   public static int quantize(float opacity) {
+      int level = (int) (opacity * (GameParam.OPACITY_LEVELS - 1) + 0.5f);
+      if (level < 0) {
+         return 0;
+      }
+      return Math.min(level, GameParam.OPACITY_LEVELS - 1);
+   }
+
+   // Clears the mask - the cells not set (void or outside of the map) are not darkened.
+   public void clear() {
+      Arrays.fill(this.pixels, 0);
+   }
+
+   public void setOpacity(int col, int row, float opacity) {
+      this.pixels[row * this.cols + col] = LEVEL_PIXELS[quantize(opacity)];
+   }
+
+   /**
+    * Draws the mask over the cells (nearest neighbour scaling keeps the cells sharp).
+    *
+    * @param g2 target graphics.
+    * @param x left of the first cell.
+    * @param y top of the first cell.
+    */
+   public void draw(Graphics2D g2, int x, int y) {
+      g2.setComposite(AlphaComposite.SrcOver);
+      g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+      g2.drawImage(this.image, x, y, this.cols * GameParam.TILE_SIZE, this.rows * GameParam.TILE_SIZE, null);
+   }
+
+}
@@ -5,107 +5,241 @@
 package meridian.map;
 
 
-import meridian.entity.Entity;
+import meridian.light.LightBuffer;
 import meridian.main.GameParam;
 
 import lombok.Getter;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
-@Getter
-public class ShadeMatrix {
-
-   private static final int WIDTH = GameParam.MAX_SCREEN_COL / 2 + 1;
-   private static final int HEIGHT = GameParam.MAX_SCREEN_ROW / 2 + 1;
-
-   // Arrays of relative X & Y coords from the Entity
-   private static final int[][] RELATIVE_COORDS = {
-         // 1st ring
-         {1, 0}, {1, 1},
-         // 2nd ring
-         {2, 0}, {2, 1}, {2, 2},
-         // 3rd ring
-         {3, 0}, {3, 1}, {3, 2}, {3, 3},
-         // 4th ring
-         {4, 0}, {4, 1}, {4, 2}, {4, 3}, {4, 4},
-         // 5th ring
-         {5, 0}, {5, 1}, {5, 2}, {5, 3}, {5, 4}, {5, 5},
-         // 6th ring
-         {6, 0}, {6, 1}, {6, 2}, {6, 3}, {6, 4}, {6, 5}, {6, 6},
-         // 7th ring
-         {7, 0}, {7, 1}, {7, 2}, {7, 3}, {7, 4}, {7, 5}, {7, 6}, {7, 7},
-         // 8th ring - truncated with screen height
-         {8, 0}, {8, 1}, {8, 2}, {8, 3}, {8, 4}, {8, 5}, {8, 6}, {8, 7},
-         // 9th ring - truncated with screen height
-         {9, 0}, {9, 1}, {9, 2}, {9, 3}, {9, 4}, {9, 5}, {9, 6}, {9, 7},
-   };
+public class ShadeMatrix implements FieldOfView {
+
+   // Place of the cached shade tables - can be changed by the 'meridian.cacheDir' system property.
+   public static final Path DEFAULT_CACHE_DIRECTORY = Path.of(System.getProperty("meridian.cacheDir",
+         Path.of(System.getProperty("java.io.tmpdir"), "dungeons-and-monsters").toString()));
+
+   // Generated matrices by 'reachCols << 16 | reachRows' - shared, they are not changed after the creation.
+   private static final Map<Integer, ShadeMatrix> MATRICES = new ConcurrentHashMap<>();
+
+   // Farthest shaded cells from the viewer (the blockers are nearer by one cell).
+   private final int reachCols;
+   private final int reachRows;
+
+   // Farthest view positions of the table - every one of them is read from the map.
+   private final int readCols;
+   private final int readRows;
 
    // Stored pre-calculated cell visibility modifiers with relative coords from Entity.
-   private final List<ViewPosition> viewPositions;
+   @Getter
+   private final ShadeTable table;
 
-   // Basic constructor
+   // Object form of the table - created only if it is asked for.
+   private List<ViewPosition> viewPositions;
+
+   // Basic constructor - the view of the screen.
    public ShadeMatrix() {
-      this.viewPositions = initData(RELATIVE_COORDS);
+      this(screenReach(GameParam.MAX_SCREEN_COL), screenReach(GameParam.MAX_SCREEN_ROW));
+   }
+
+   public ShadeMatrix(int reachCols, int reachRows) {
+      this(reachCols, reachRows, generateCoords(reachCols, reachRows), DEFAULT_CACHE_DIRECTORY);
    }
 
    // Constructor for testing one or more given coords.
    public ShadeMatrix(int[][] coords) {
-      this.viewPositions = initData(coords);
+      this(coords, null);
    }
 
-   public void updateMapCellsVisibility(MapCell[][] cells, Entity entity) {
-      int entityX = entity.getWorldCol();
-      int entityY = entity.getWorldRow();
-      int viewedCellRow;
-      int viewedCellCol;
-
-      for (ViewPosition vp : viewPositions) {
-         viewedCellRow = entityY + vp.getY();
-         viewedCellCol = entityX + vp.getX();
+   public ShadeMatrix(int[][] coords, Path cacheDirectory) {
+      this(screenReach(GameParam.MAX_SCREEN_COL), screenReach(GameParam.MAX_SCREEN_ROW), coords, cacheDirectory);
+   }
 
-         if (viewedCellRow < 0 || viewedCellRow > cells.length - 1 ||
-               viewedCellCol < 0 || viewedCellCol > cells[viewedCellRow].length - 1) {
+   /**
+    * @param reachCols farthest shaded column from the viewer.
+    * @param reachRows farthest shaded row from the viewer.
+    * @param coords blocker cells of a quarter of the view (with x >= y).
+    * @param cacheDirectory directory of the cached tables, null: no cache.
+    */
+   public ShadeMatrix(int reachCols, int reachRows, int[][] coords, Path cacheDirectory) {
+      if (reachCols < 1 || reachRows < 1 || reachCols > Byte.MAX_VALUE || reachRows > Byte.MAX_VALUE) {
+         throw new IllegalStateException("Invalid shade matrix reach: " + reachCols + "x" + reachRows);
+      }
+      this.reachCols = reachCols;
+      this.reachRows = reachRows;
+
+      Path cacheFile = null;
+      ShadeTable cached = null;
+      if (cacheDirectory != null) {
+         cacheFile = cacheDirectory.resolve("shade_" + reachCols + "x" + reachRows + "_" + coordsDigest(coords) + ".bin");
+         cached = ShadeTable.read(cacheFile, reachCols, reachRows, coords);
+      }
 
-            // Because of it is outside of World Map then get next...!
-            continue;
+      if (cached != null) {
+         this.table = cached;
+      }
+      else {
+         this.viewPositions = initData(coords);
+         this.table = ShadeTable.of(this.viewPositions);
+         if (cacheFile != null) {
+            this.table.write(cacheFile, reachCols, reachRows, coords);
          }
+      }
 
-         float cellTransparency = cells[viewedCellRow][viewedCellCol].getTile().getTileTransparency();
+      int cols = 0;
+      int rows = 0;
+      for (int p = 0; p < this.table.getPositionCount(); p++) {
+         cols = Math.max(cols, Math.abs(this.table.positionX[p]));
+         rows = Math.max(rows, Math.abs(this.table.positionY[p]));
+      }
+      this.readCols = cols;
+      this.readRows = rows;
 
-         // If it is not completely transparent, this cell will cover the cells behind it.
-         if (cellTransparency > 0.0001f) {
-            setCoveredMapCells(cells, entityX, entityY, vp, cellTransparency);
+   }
+
+   /**
+    * Shared matrix of a reach - generated at the first use only.
+    *
+    * @param reachCols farthest shaded column from the viewer.
+    * @param reachRows farthest shaded row from the viewer.
+    * @return the matrix of the reach.
+    */
+   public static ShadeMatrix forReach(int reachCols, int reachRows) {
+      return MATRICES.computeIfAbsent(reachCols << 16 | reachRows, key -> new ShadeMatrix(reachCols, reachRows));
+   }
+
+   // Shared matrix of the view of a screen (window) size in cells.
+   public static ShadeMatrix forScreen(int screenCols, int screenRows) {
+      return forReach(screenReach(screenCols), screenReach(screenRows));
+   }
+
+   private static int screenReach(int screenCells) {
+      return screenCells / 2 + 1;
+   }
+
+   /**
+    * Generates the blocker cells of the XY triangle ring by ring: every cell of the ring
+    * 'x' from the horizontal axis to the diagonal, truncated by the reach rows.
+    *
+    * @param reachCols farthest shaded column from the viewer.
+    * @param reachRows farthest shaded row from the viewer.
+    * @return relative X & Y coords of the blockers.
+    */
+   public static int[][] generateCoords(int reachCols, int reachRows) {
+      List<int[]> coords = new ArrayList<>();
+      for (int x = 1; x < reachCols; x++) {
+         for (int y = 0; y <= Math.min(x, reachRows - 1); y++) {
+            coords.add(new int[] {x, y});
+         }
+      }
+      return coords.toArray(new int[0][]);
+   }
+
+   // Names the cache file of the coords (the file is checked by its header as well).
+   private static String coordsDigest(int[][] coords) {
+      try {
+         MessageDigest digest = MessageDigest.getInstance("SHA-256");
+         ByteBuffer buffer = ByteBuffer.allocate(coords.length * 8);
+         for (int[] coord : coords) {
+            buffer.putInt(coord[0]).putInt(coord[1]);
          }
+         return HexFormat.of().formatHex(digest.digest(buffer.array()), 0, 16);
+      }
+      catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("No SHA-256 digest for the shade cache", e);
+      }
+   }
 
+   public synchronized List<ViewPosition> getViewPositions() {
+      if (this.viewPositions == null) {
+         this.viewPositions = this.table.toViewPositions();
       }
+      return this.viewPositions;
+   }
+
+   @Override
+   public String getAlgorithm() {
+      return SHADE_MATRIX;
+   }
+
+   // Farthest shaded cells from the viewer.
+   @Override
+   public int getReachCols() {
+      return this.reachCols;
+   }
+
+   @Override
+   public int getReachRows() {
+      return this.reachRows;
+   }
 
+   @Override
+   public int getReadCols() {
+      return this.readCols;
    }
 
-   private void setCoveredMapCells(MapCell[][] cells, int entityX, int entityY, ViewPosition vp, float blockerCellTransparency) {
-      MapCell cell;
-      int coveredCellRow;
-      int coveredCellCol;
-      for (CellDarkener currentDarkener : vp.getCellDarkeners()) {
-         coveredCellRow = entityY + currentDarkener.getY();
-         coveredCellCol = entityX + currentDarkener.getX();
+   @Override
+   public int getReadRows() {
+      return this.readRows;
+   }
+
+   @Override
+   public void updateMapCellsVisibility(MapGrid grid, int viewerCol, int viewerRow, LightBuffer buffer) {
+      ShadeTable t = this.table;
+      float[] values = buffer.getValues();
+      int bufferWidth = buffer.getWidth();
+      int bufferHeight = buffer.getHeight();
+
+      // Viewer in the buffer.
+      int viewerLocalCol = viewerCol - buffer.getOriginCol();
+      int viewerLocalRow = viewerRow - buffer.getOriginRow();
+
+      for (int p = 0; p < t.getPositionCount(); p++) {
+         int viewedCellCol = viewerCol + t.positionX[p];
+         int viewedCellRow = viewerRow + t.positionY[p];
 
-         if (coveredCellRow < 0 || coveredCellRow > cells.length - 1 ||
-               coveredCellCol < 0 || coveredCellCol > cells[coveredCellRow].length - 1) {
+         if (!grid.isInside(viewedCellCol, viewedCellRow)) {
 
             // Because of it is outside of World Map then get next...!
             continue;
          }
 
-         cell = cells[coveredCellRow][coveredCellCol];
-         float opacity = cell.getVisibleOpacity();
-         if (opacity > 0.0001f) {
+         float cellTransparency = grid.getTransparency(viewedCellCol, viewedCellRow);
+
+         // If it is not completely transparent, this cell will cover the cells behind it.
+         if (cellTransparency <= 0.0001f) {
+            continue;
+         }
+
+         for (int d = t.darkenerStart[p]; d < t.darkenerStart[p + 1]; d++) {
+            int localCol = viewerLocalCol + t.darkenerX[d];
+            int localRow = viewerLocalRow + t.darkenerY[d];
+
+            if (localCol < 0 || localRow < 0 || localCol >= bufferWidth || localRow >= bufferHeight) {
+
+               // Because of it is outside of the examined cells then get next...!
+               continue;
+            }
+
+            int index = localRow * bufferWidth + localCol;
+            float opacity = values[index];
+            if (opacity > 0.0001f) {
+
+               // Calculate opacity value according to the viewer point.
+               opacity = opacity - t.darkenerValue[d] * cellTransparency;
+               if (opacity < 0.0f) {
+                  opacity = 0.0f;
+               }
+               values[index] = opacity;
 
-            // Calculate opacity value according to the viewer point.
-            cell.setVisibleOpacity(opacity - currentDarkener.getValue() * blockerCellTransparency);
-            if (cell.getVisibleOpacity() < 0.0f) {
-               cell.setVisibleOpacity(0.0f);
             }
 
          }
@@ -164,8 +298,8 @@ public class ShadeMatrix {
 
    private void findCoveredCells(int xx, int yy, float deltaY1, float deltaY2, ViewPosition viewPosition) {
       // Search shaded map cells - in XY triangle.
-      for (int row = 0; row <= HEIGHT; row++) {
-         for (int col = row; col <= WIDTH; col++) {
+      for (int row = 0; row <= this.reachRows; row++) {
+         for (int col = row; col <= this.reachCols; col++) {
 
             // This is a fully visible cells - get next.
             if (isFullyVisibleCells(xx, yy, col, row))
@@ -254,7 +388,7 @@ public class ShadeMatrix {
       for (CellDarkener cd : darkeners) {
          int x = cd.getX();
          int y = cd.getY();
-         if (y != 0 && x <= WIDTH) { // Because the screen wider than tall
+         if (y != 0 && x <= this.reachCols) { // Because the screen wider than tall
 
             // FYI: Swap Y with -Y!
             CellDarkener newCd = new CellDarkener(x, -y, cd.getValue());
@@ -276,7 +410,7 @@ public class ShadeMatrix {
       for (CellDarkener cd : darkeners) {
          int x = cd.getX();
          int y = cd.getY();
-         if (x != y && x < HEIGHT + offset) { // Because the screen wider than tall
+         if (x != y && x < this.reachRows + offset) { // Because the screen wider than tall
 
             // FYI: Swap x and y!
             CellDarkener newCd = new CellDarkener(y, x, cd.getValue());
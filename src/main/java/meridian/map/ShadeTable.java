@@ -0,0 +1,242 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Pre-calculated view positions of the ShadeMatrix in flat primitive arrays (compressed
+ * sparse rows): the darkeners of the position 'p' are the entries from 'darkenerStart[p]'
+ * to 'darkenerStart[p + 1]' exclusive. The offsets relative to the viewer fit into bytes.
+ *
+ * The table can be saved into a cache file and loaded from it instead of calculating it.
+ * The header of the file holds the parameters of the calculation (reach and blocker
+ * coords), and a file of other parameters or of an other format version is not loaded.
+ */
+public final class ShadeTable {
+
+   private static final int MAGIC = 0x44414853; // 'SHAD' in big endian
+   // Must be increased when the calculation of the ShadeMatrix or the file format changes (the old cache files are dropped).
+   private static final int VERSION = 2;
+
+   @Getter
+   private final int positionCount;
+
+   // Offsets of the view positions from the viewer.
+   final byte[] positionX;
+   final byte[] positionY;
+
+   // Darkeners of the positions - offsets from the viewer and darkening values.
+   final int[] darkenerStart;
+   final byte[] darkenerX;
+   final byte[] darkenerY;
+   final float[] darkenerValue;
+
+
+   private ShadeTable(byte[] positionX, byte[] positionY, int[] darkenerStart,
+                      byte[] darkenerX, byte[] darkenerY, float[] darkenerValue) {
+      this.positionCount = positionX.length;
+      this.positionX = positionX;
+      this.positionY = positionY;
+      this.darkenerStart = darkenerStart;
+      this.darkenerX = darkenerX;
+      this.darkenerY = darkenerY;
+      this.darkenerValue = darkenerValue;
+   }
+
+
+   public static ShadeTable of(List<ViewPosition> viewPositions) {
+      int positionCount = viewPositions.size();
+      byte[] positionX = new byte[positionCount];
+      byte[] positionY = new byte[positionCount];
+      int[] darkenerStart = new int[positionCount + 1];
+
+      for (int p = 0; p < positionCount; p++) {
+         ViewPosition vp = viewPositions.get(p);
+         positionX[p] = toByte(vp.getX());
+         positionY[p] = toByte(vp.getY());
+         darkenerStart[p + 1] = darkenerStart[p] + vp.getCellDarkeners().size();
+      }
+
+      int darkenerCount = darkenerStart[positionCount];
+      byte[] darkenerX = new byte[darkenerCount];
+      byte[] darkenerY = new byte[darkenerCount];
+      float[] darkenerValue = new float[darkenerCount];
+      for (int p = 0; p < positionCount; p++) {
+         int d = darkenerStart[p];
+         for (CellDarkener cd : viewPositions.get(p).getCellDarkeners()) {
+            darkenerX[d] = toByte(cd.getX());
+            darkenerY[d] = toByte(cd.getY());
+            darkenerValue[d] = cd.getValue();
+            d++;
+         }
+      }
+
+      return new ShadeTable(positionX, positionY, darkenerStart, darkenerX, darkenerY, darkenerValue);
+   }
+
+   private static byte toByte(int offset) {
+      if (offset < Byte.MIN_VALUE || offset > Byte.MAX_VALUE) {
+         throw new IllegalStateException("Shade table offset out of range: " + offset);
+      }
+      return (byte) offset;
+   }
+
+   public int getDarkenerCount() {
+      return this.darkenerStart[this.positionCount];
+   }
+
+   // Creates the object form of the table (for the tools and the tests).
+   public List<ViewPosition> toViewPositions() {
+      List<ViewPosition> result = new ArrayList<>(this.positionCount);
+      for (int p = 0; p < this.positionCount; p++) {
+         ViewPosition vp = new ViewPosition(this.positionX[p], this.positionY[p]);
+         for (int d = this.darkenerStart[p]; d < this.darkenerStart[p + 1]; d++) {
+            vp.getCellDarkeners().add(new CellDarkener(this.darkenerX[d], this.darkenerY[d], this.darkenerValue[d]));
+         }
+         result.add(vp);
+      }
+      return result;
+   }
+
+   /**
+    * Loads a table from a cache file.
+    *
+    * @param file cache file.
+    * @param reachCols expected reach columns of the calculation.
+    * @param reachRows expected reach rows of the calculation.
+    * @param coords expected blocker coords of the calculation.
+    * @return the table, or null if the file does not exist, it is broken or it is made with other parameters.
+    */
+   public static ShadeTable read(Path file, int reachCols, int reachRows, int[][] coords) {
+      if (!Files.isRegularFile(file)) {
+         return null;
+      }
+
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+         if (in.readInt() != MAGIC || in.readInt() != VERSION || !readParameters(in, reachCols, reachRows, coords)) {
+            return null;
+         }
+
+         int positionCount = in.readInt();
+         int darkenerCount = in.readInt();
+         byte[] positionX = new byte[positionCount];
+         byte[] positionY = new byte[positionCount];
+         int[] darkenerStart = new int[positionCount + 1];
+         byte[] darkenerX = new byte[darkenerCount];
+         byte[] darkenerY = new byte[darkenerCount];
+         float[] darkenerValue = new float[darkenerCount];
+
+         in.readFully(positionX);
+         in.readFully(positionY);
+         for (int p = 0; p <= positionCount; p++) {
+            darkenerStart[p] = in.readInt();
+         }
+         in.readFully(darkenerX);
+         in.readFully(darkenerY);
+         for (int d = 0; d < darkenerCount; d++) {
+            darkenerValue[d] = in.readFloat();
+         }
+
+         if (darkenerStart[positionCount] != darkenerCount) {
+            return null;
+         }
+         return new ShadeTable(positionX, positionY, darkenerStart, darkenerX, darkenerY, darkenerValue);
+      }
+      catch (IOException | RuntimeException e) {
+
+         // Broken cache file - it is calculated again.
+         return null;
+      }
+
+   }
+
+   // Compares the parameters of the file with the expected ones.
+   private static boolean readParameters(DataInputStream in, int reachCols, int reachRows, int[][] coords) throws IOException {
+      if (in.readInt() != reachCols || in.readInt() != reachRows || in.readInt() != coords.length) {
+         return false;
+      }
+      for (int[] coord : coords) {
+         if (in.readInt() != coord[0] || in.readInt() != coord[1]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Saves the table into a cache file. The cache is optional, so a failed save is ignored.
+    *
+    * @param file cache file (replaced if it exists).
+    * @param reachCols reach columns of the calculation.
+    * @param reachRows reach rows of the calculation.
+    * @param coords blocker coords of the calculation.
+    * @return true if the file has been saved.
+    */
+   public boolean write(Path file, int reachCols, int reachRows, int[][] coords) {
+      Path temp = null;
+      try {
+         Files.createDirectories(file.toAbsolutePath().getParent());
+
+         // Written into a temporary file first - an other instance never reads a half written file.
+         temp = Files.createTempFile(file.toAbsolutePath().getParent(), "shade", ".tmp");
+         try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(reachCols);
+            out.writeInt(reachRows);
+            out.writeInt(coords.length);
+            for (int[] coord : coords) {
+               out.writeInt(coord[0]);
+               out.writeInt(coord[1]);
+            }
+            out.writeInt(this.positionCount);
+            out.writeInt(getDarkenerCount());
+            out.write(this.positionX);
+            out.write(this.positionY);
+            for (int start : this.darkenerStart) {
+               out.writeInt(start);
+            }
+            out.write(this.darkenerX);
+            out.write(this.darkenerY);
+            for (float value : this.darkenerValue) {
+               out.writeFloat(value);
+            }
+         }
+         Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+         return true;
+      }
+      catch (IOException e) {
+         deleteQuietly(temp);
+         return false;
+      }
+
+   }
+
+   private static void deleteQuietly(Path file) {
+      if (file == null) {
+         return;
+      }
+      try {
+         Files.deleteIfExists(file);
+      }
+      catch (IOException e) {
+         // Left for the system to clean up.
+      }
+   }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+import meridian.light.LightBuffer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Symmetric recursive shadowcasting: the four quadrants around the viewpoint are scanned
+ * row by row, and the rows are split into sub-scans by the walls (the slopes are exact
+ * fractions). Every cell is visited at most once per quadrant, and a cell is visible from
+ * an other one exactly when that one is visible from it.
+ *
+ * The shadows are sharp - a cell darkening by at least the half of the light is a wall,
+ * and the not visible cells get no light at all.
+ */
+public class ShadowcastFieldOfView implements FieldOfView {
+
+   // Cells darkening more are walls.
+   private static final float WALL_TRANSPARENCY = 0.5f;
+
+   // Quadrants: north, east, south, west - world offset of (depth, col) is (depth * rowX + col * colX, ...).
+   private static final int[] ROW_X = {0, 1, 0, -1};
+   private static final int[] ROW_Y = {-1, 0, 1, 0};
+   private static final int[] COL_X = {1, 0, 1, 0};
+   private static final int[] COL_Y = {0, 1, 0, 1};
+
+   private static final Map<Integer, ShadowcastFieldOfView> INSTANCES = new ConcurrentHashMap<>();
+
+   // Seen marks of the buffer cells ('stamp' of the current calculation) - one array per thread.
+   private static final ThreadLocal<Marks> MARKS = ThreadLocal.withInitial(Marks::new);
+
+   @Getter
+   private final int reachCols;
+   @Getter
+   private final int reachRows;
+
+
+   public ShadowcastFieldOfView(int reachCols, int reachRows) {
+      if (reachCols < 1 || reachRows < 1) {
+         throw new IllegalStateException("Invalid field of view reach: " + reachCols + "x" + reachRows);
+      }
+      this.reachCols = reachCols;
+      this.reachRows = reachRows;
+   }
+
+
+   public static ShadowcastFieldOfView forReach(int reachCols, int reachRows) {
+      return INSTANCES.computeIfAbsent(reachCols << 16 | reachRows, key -> new ShadowcastFieldOfView(reachCols, reachRows));
+   }
+
+   @Override
+   public String getAlgorithm() {
+      return SHADOWCASTING;
+   }
+
+   // The quadrants are scanned to the larger reach on both axes (and one cell aside at every depth).
+   @Override
+   public int getReadCols() {
+      return Math.max(this.reachCols, this.reachRows);
+   }
+
+   @Override
+   public int getReadRows() {
+      return Math.max(this.reachCols, this.reachRows);
+   }
+
+   @Override
+   public void updateMapCellsVisibility(MapGrid grid, int viewerCol, int viewerRow, LightBuffer buffer) {
+      Marks marks = MARKS.get();
+      marks.begin(buffer.getValues().length);
+
+      Scan scan = new Scan(grid, viewerCol, viewerRow, buffer, marks);
+      scan.reveal(viewerCol, viewerRow);
+      int maxDepth = Math.max(this.reachCols, this.reachRows);
+      for (int quadrant = 0; quadrant < 4; quadrant++) {
+         scan.quadrant = quadrant;
+         scan.scanRow(1, -1, 1, 1, 1, maxDepth);
+      }
+
+      // Not seen cells in the reach get no light.
+      float[] values = buffer.getValues();
+      int firstCol = Math.max(buffer.getOriginCol(), viewerCol - this.reachCols);
+      int lastCol = Math.min(buffer.getOriginCol() + buffer.getWidth() - 1, viewerCol + this.reachCols);
+      int firstRow = Math.max(buffer.getOriginRow(), viewerRow - this.reachRows);
+      int lastRow = Math.min(buffer.getOriginRow() + buffer.getHeight() - 1, viewerRow + this.reachRows);
+      for (int row = firstRow; row <= lastRow; row++) {
+         int index = buffer.index(firstCol, row);
+         for (int col = firstCol; col <= lastCol; col++, index++) {
+            if (marks.stamps[index] != marks.stamp) {
+               values[index] = 0.0f;
+            }
+         }
+      }
+
+   }
+
+   // State of one calculation - the slopes are passed as 'numerator / denominator' pairs.
+   private static final class Scan {
+
+      private final MapGrid grid;
+      private final int viewerCol;
+      private final int viewerRow;
+      private final LightBuffer buffer;
+      private final Marks marks;
+      private int quadrant;
+
+      Scan(MapGrid grid, int viewerCol, int viewerRow, LightBuffer buffer, Marks marks) {
+         this.grid = grid;
+         this.viewerCol = viewerCol;
+         this.viewerRow = viewerRow;
+         this.buffer = buffer;
+         this.marks = marks;
+      }
+
+      void scanRow(int depth, int startNum, int startDen, int endNum, int endDen, int maxDepth) {
+         if (depth > maxDepth) {
+            return;
+         }
+
+         // Cells whose center is between the slopes (ties rounded to the inside).
+         int minCol = Math.floorDiv(2 * depth * startNum + startDen, 2 * startDen);
+         int maxCol = -Math.floorDiv(-(2 * depth * endNum - endDen), 2 * endDen);
+
+         int previous = 0; // 0: none, 1: wall, 2: floor
+         for (int col = minCol; col <= maxCol; col++) {
+            int worldCol = this.viewerCol + depth * ROW_X[this.quadrant] + col * COL_X[this.quadrant];
+            int worldRow = this.viewerRow + depth * ROW_Y[this.quadrant] + col * COL_Y[this.quadrant];
+            boolean wall = isWall(worldCol, worldRow);
+
+            // Walls are lit on their visible part, floors only if their center is in sight (symmetry).
+            if (wall || (col * startDen >= depth * startNum && col * endDen <= depth * endNum)) {
+               reveal(worldCol, worldRow);
+            }
+            if (previous == 1 && !wall) {
+               startNum = 2 * col - 1;
+               startDen = 2 * depth;
+            }
+            if (previous == 2 && wall) {
+               scanRow(depth + 1, startNum, startDen, 2 * col - 1, 2 * depth, maxDepth);
+            }
+            previous = wall ? 1 : 2;
+         }
+
+         if (previous == 2) {
+            scanRow(depth + 1, startNum, startDen, endNum, endDen, maxDepth);
+         }
+
+      }
+
+      // Cells outside of the World Map block the view.
+      private boolean isWall(int col, int row) {
+         return !this.grid.isInside(col, row) || this.grid.getTransparency(col, row) >= WALL_TRANSPARENCY;
+      }
+
+      void reveal(int col, int row) {
+         if (this.buffer.contains(col, row)) {
+            this.marks.stamps[this.buffer.index(col, row)] = this.marks.stamp;
+         }
+      }
+
+   }
+
+   private static final class Marks {
+
+      private int[] stamps = new int[0];
+      private int stamp;
+
+      void begin(int size) {
+         if (this.stamps.length < size) {
+            this.stamps = new int[size];
+            this.stamp = 0;
+         }
+         this.stamp++;
+
+         // Wrapped around - the old marks could match.
+         if (this.stamp == 0) {
+            Arrays.fill(this.stamps, 0);
+            this.stamp = 1;
+         }
+      }
+
+   }
+
+}
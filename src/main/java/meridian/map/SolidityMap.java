@@ -0,0 +1,75 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+
+
+/**
+ * Solid cells of a whole map grid in a row major bitset - built once for the grid, then the
+ * grid flips the bit of every changed tile (the rest of the map is not read again). Any
+ * number of threads can check cells in it (the chunks of the grid are not paged in by the
+ * reads), a reader running during a tile change sees the old or the new bit of the cell -
+ * the version tells it whether the map has changed since. Cells outside the map are solid.
+ */
+public final class SolidityMap {
+
+   // Source of the bits and its version at the last change of the bits.
+   @Getter
+   private final MapGrid grid;
+   @Getter
+   private volatile int version;
+
+   @Getter
+   private final int width;
+   @Getter
+   private final int height;
+   private final int wordsPerRow;
+   private final long[] bits;
+
+
+   private SolidityMap(MapGrid grid) {
+      this.grid = grid;
+      this.version = grid.getVersion();
+      this.width = grid.getWidth();
+      this.height = grid.getHeight();
+      this.wordsPerRow = (this.width + 63) >> 6;
+      this.bits = new long[this.wordsPerRow * this.height];
+      grid.copySolidBits(this.bits, this.wordsPerRow);
+   }
+
+
+   // Builds the bitset of the grid - the grid keeps the last built one up to date.
+   public static SolidityMap of(MapGrid grid) {
+      SolidityMap result = new SolidityMap(grid);
+      grid.attachSolidity(result);
+      return result;
+   }
+
+   // False if the bits do not follow the grid (an other grid or a newer bitset of the grid).
+   public boolean isCurrent(MapGrid current) {
+      return current == this.grid && current.getVersion() == this.version;
+   }
+
+   // Follows a changed tile of the grid.
+   void update(int col, int row, boolean solid, int gridVersion) {
+      int index = row * this.wordsPerRow + (col >> 6);
+      if (solid) {
+         this.bits[index] |= 1L << col;
+      }
+      else {
+         this.bits[index] &= ~(1L << col);
+      }
+      this.version = gridVersion;
+   }
+
+   public boolean isSolid(int col, int row) {
+      if (col < 0 || row < 0 || col >= this.width || row >= this.height) {
+         return true;
+      }
+      return (this.bits[row * this.wordsPerRow + (col >> 6)] & (1L << col)) != 0;
+   }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Tile ids of a text '.map' file (one row per line, ids separated by spaces). The text
+ * format cannot be read by regions, so the ids are parsed once into a compact plane.
+ */
+public class TextMapSource implements ChunkSource {
+
+   @Getter
+   private final int width;
+   @Getter
+   private final int height;
+
+   // Tile ids in row order.
+   @Getter
+   private final short[] tileIds;
+
+
+   public TextMapSource(String mapName, int width, int height) {
+      this(TextMapSource.class.getResourceAsStream(mapName + ".map"), width, height);
+   }
+
+   public TextMapSource(InputStream mapData, int width, int height) {
+      this.width = width;
+      this.height = height;
+      this.tileIds = new short[width * height];
+
+      try (InputStream inputStream = mapData) {
+         assert inputStream != null;
+         try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+              BufferedReader reader = new BufferedReader(streamReader)) {
+
+            parse(reader);
+         }
+
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Cannot initialize World Map Cells from file: " + e);
+      }
+
+   }
+
+
+   // Reads the digits of the ids char by char - no String is created per cell.
+   private void parse(BufferedReader reader) throws IOException {
+      int row = 0;
+      int col = 0;
+      int value = 0;
+      boolean inNumber = false;
+
+      int c;
+      while ((c = reader.read()) != -1 && row < this.height) {
+         if (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            inNumber = true;
+            continue;
+         }
+
+         // End of an id.
+         if (inNumber) {
+            storeId(col, row, value);
+            col++;
+            value = 0;
+            inNumber = false;
+         }
+
+         if (c == '\n') {
+            row++;
+            col = 0;
+         }
+      }
+
+      // The last id if the file does not end with a new line.
+      if (inNumber) {
+         storeId(col, row, value);
+      }
+
+   }
+
+   private void storeId(int col, int row, int value) {
+      if (col < this.width && row < this.height) {
+         this.tileIds[row * this.width + col] = (short) value;
+      }
+   }
+
+   @Override
+   public void readTileIds(int startCol, int startRow, int cols, int rows, short[] target, int targetStride) {
+      for (int row = 0; row < rows; row++) {
+         System.arraycopy(this.tileIds, (startRow + row) * this.width + startCol, target, row * targetStride, cols);
+      }
+   }
+
+}
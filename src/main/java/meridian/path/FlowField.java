@@ -0,0 +1,151 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import lombok.Getter;
+import meridian.entity.Direction;
+import meridian.map.SolidityMap;
+
+import java.util.Arrays;
+
+
+/**
+ * Distances of the cells from a target (the player) in 4-connected steps over the free
+ * cells - calculated by one breadth first flood, so any number of entities read their next
+ * step towards the target from it instead of searching their own paths.
+ *
+ * The flood is bounded by the maximum distance, so it costs the area of the chase and not
+ * the whole map. The distances are in a flat int array, the cells of the current flood are
+ * marked by its stamp (the array is not cleared between the floods).
+ */
+public class FlowField {
+
+   public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+   private static final int[] STEP_COLS = {1, -1, 0, 0};
+   private static final int[] STEP_ROWS = {0, 0, 1, -1};
+   private static final Direction[] STEP_DIRECTIONS = {Direction.RIGHT, Direction.LEFT, Direction.DOWN, Direction.UP};
+
+   // Longest distance of the flood.
+   @Getter
+   private final int maxDistance;
+
+   // Map, its version and target of the last flood.
+   @Getter
+   private SolidityMap solidity;
+   private int solidityVersion;
+   @Getter
+   private int targetCol;
+   @Getter
+   private int targetRow;
+
+   // Distances by 'row * width + col' - valid where the stamp is the stamp of the last flood.
+   private int[] distances = new int[0];
+   private int[] stamps = new int[0];
+   private int stamp;
+
+   // Cells of the flood in their order.
+   private int[] queue = new int[0];
+   @Getter
+   private int reachedCells;
+
+
+   public FlowField(int maxDistance) {
+      this.maxDistance = maxDistance;
+   }
+
+
+   // True if the field has been flooded from this cell of this map (and the map has not changed since).
+   public boolean isFloodedFrom(SolidityMap map, int col, int row) {
+      return this.solidity == map && this.solidityVersion == map.getVersion() &&
+            this.targetCol == col && this.targetRow == row;
+   }
+
+   /**
+    * Floods the distances from a target cell (a solid target reaches nothing).
+    *
+    * @param map solid cells of the map.
+    * @param col column of the target.
+    * @param row row of the target.
+    */
+   public void flood(SolidityMap map, int col, int row) {
+      int width = map.getWidth();
+      int cells = width * map.getHeight();
+      if (this.distances.length != cells) {
+         this.distances = new int[cells];
+         this.stamps = new int[cells];
+         this.stamp = 0;
+         // The bounded flood reaches at most the cells of a diamond of the maximum distance.
+         long diamond = 2L * this.maxDistance * (this.maxDistance + 1) + 1;
+         this.queue = new int[(int) Math.min(cells, diamond)];
+      }
+      if (++this.stamp == Integer.MAX_VALUE) {
+         Arrays.fill(this.stamps, 0);
+         this.stamp = 1;
+      }
+      this.solidity = map;
+      this.solidityVersion = map.getVersion();
+      this.targetCol = col;
+      this.targetRow = row;
+      this.reachedCells = 0;
+      if (map.isSolid(col, row)) {
+         return;
+      }
+
+      int target = row * width + col;
+      this.distances[target] = 0;
+      this.stamps[target] = this.stamp;
+      this.queue[this.reachedCells++] = target;
+
+      for (int head = 0; head < this.reachedCells; head++) {
+         int cell = this.queue[head];
+         int distance = this.distances[cell] + 1;
+         if (distance > this.maxDistance) {
+            break;
+         }
+
+         int cellCol = cell % width;
+         int cellRow = cell / width;
+         for (int i = 0; i < STEP_COLS.length; i++) {
+            int nextCol = cellCol + STEP_COLS[i];
+            int nextRow = cellRow + STEP_ROWS[i];
+            if (map.isSolid(nextCol, nextRow)) {
+               continue;
+            }
+            int next = nextRow * width + nextCol;
+            if (this.stamps[next] != this.stamp) {
+               this.stamps[next] = this.stamp;
+               this.distances[next] = distance;
+               this.queue[this.reachedCells++] = next;
+            }
+         }
+      }
+   }
+
+   // Steps from the cell to the target (UNREACHABLE: not reached by the flood).
+   public int getDistance(int col, int row) {
+      if (this.solidity == null || col < 0 || row < 0 || col >= this.solidity.getWidth() || row >= this.solidity.getHeight()) {
+         return UNREACHABLE;
+      }
+      int cell = row * this.solidity.getWidth() + col;
+      return this.stamps[cell] == this.stamp ? this.distances[cell] : UNREACHABLE;
+   }
+
+   // The step towards the target from a cell (null: on the target or not reached).
+   public Direction nextStep(int col, int row) {
+      int distance = getDistance(col, row);
+      if (distance == 0 || distance == UNREACHABLE) {
+         return null;
+      }
+
+      for (int i = 0; i < STEP_COLS.length; i++) {
+         if (getDistance(col + STEP_COLS[i], row + STEP_ROWS[i]) == distance - 1) {
+            return STEP_DIRECTIONS[i];
+         }
+      }
+      return null;
+   }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import meridian.map.CollisionChecker;
+import meridian.map.SolidityMap;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Keeps a FlowField flooded from the moving target (the player) with double buffering: the
+ * readers use the published field, the next one is flooded into the other buffer, then the
+ * two are swapped. The field is flooded again only when the target has moved to an other
+ * cell or the map has changed.
+ *
+ * In background mode the flood runs on its own thread and the readers keep using the
+ * previous field until the new one is published (a request is dropped while a flood is
+ * running - the next tick requests it again). The published field can be read until the
+ * next request of the game thread.
+ */
+public class FlowFieldUpdater implements AutoCloseable {
+
+   public static final int DEFAULT_MAX_DISTANCE = 128;
+
+   private final CollisionChecker collisionChecker;
+
+   // Published field and the buffer of the next flood.
+   private volatile FlowField current;
+   private FlowField next;
+
+   // Background flood (null: the fields are flooded on the calling thread).
+   private final ExecutorService worker;
+   private final AtomicBoolean flooding = new AtomicBoolean();
+
+
+   public FlowFieldUpdater(CollisionChecker collisionChecker, boolean background) {
+      this(collisionChecker, DEFAULT_MAX_DISTANCE, background);
+   }
+
+   /**
+    * @param collisionChecker its solidity bitset is the map of the floods.
+    * @param maxDistance longest distance of the floods.
+    * @param background true: the fields are flooded on a background thread.
+    */
+   public FlowFieldUpdater(CollisionChecker collisionChecker, int maxDistance, boolean background) {
+      this.collisionChecker = collisionChecker;
+      this.current = new FlowField(maxDistance);
+      this.next = new FlowField(maxDistance);
+      this.worker = background ? Executors.newSingleThreadExecutor(runnable -> {
+         Thread thread = new Thread(runnable, "flow-field");
+         thread.setDaemon(true);
+         return thread;
+      }) : null;
+   }
+
+
+   // The published field.
+   public FlowField current() {
+      return this.current;
+   }
+
+   /**
+    * Requests the field of a target position (game thread) - flooded at once or on the background thread.
+    *
+    * @param col column of the target.
+    * @param row row of the target.
+    */
+   public void request(int col, int row) {
+      // Built on the calling thread (if the map has changed).
+      SolidityMap solidity = this.collisionChecker.currentSolidity();
+      if (this.current.isFloodedFrom(solidity, col, row) || !this.flooding.compareAndSet(false, true)) {
+         return;
+      }
+
+      if (this.worker == null) {
+         flood(solidity, col, row);
+      }
+      else {
+         this.worker.execute(() -> flood(solidity, col, row));
+      }
+   }
+
+   // True while the background flood is running.
+   public boolean isFlooding() {
+      return this.flooding.get();
+   }
+
+   @Override
+   public void close() {
+      if (this.worker != null) {
+         this.worker.shutdownNow();
+      }
+   }
+
+   private void flood(SolidityMap solidity, int col, int row) {
+      try {
+         FlowField flooded = this.next;
+         flooded.flood(solidity, col, row);
+         this.next = this.current;
+         this.current = flooded;
+      }
+      finally {
+         this.flooding.set(false);
+      }
+   }
+
+}
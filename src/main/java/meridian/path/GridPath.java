@@ -0,0 +1,43 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+
+/**
+ * Path on the World Map cells from the start to the goal (both included) - every cell is a
+ * neighbour of the previous one (4-connected steps). Immutable, so the cached paths are
+ * shared by the entities.
+ */
+public final class GridPath {
+
+   // Cells of the path by 'row * width + col'.
+   private final int[] cells;
+   private final int width;
+
+
+   GridPath(int[] cells, int width) {
+      this.cells = cells;
+      this.width = width;
+   }
+
+
+   // Number of the cells (steps + 1).
+   public int getLength() {
+      return this.cells.length;
+   }
+
+   public int getSteps() {
+      return this.cells.length - 1;
+   }
+
+   public int getCol(int index) {
+      return this.cells[index] % this.width;
+   }
+
+   public int getRow(int index) {
+      return this.cells[index] / this.width;
+   }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+
+/**
+ * Least recently used cache of the found paths by long keys - the entries are in flat
+ * arrays (linked into the LRU list by their indices) and found by an open addressing table,
+ * so the lookups do not allocate. Not thread safe (PathFinder synchronizes it).
+ */
+final class PathCache {
+
+   private static final int EMPTY = -1;
+
+   @Getter
+   private final int capacity;
+   @Getter
+   private int size;
+
+   // Entries.
+   private final long[] keys;
+   private final GridPath[] paths;
+   private final int[] previous;
+   private final int[] next;
+
+   // Most and least recently used entries.
+   private int head = EMPTY;
+   private int tail = EMPTY;
+
+   // Entry indices by the hash of the keys (linear probing, at most half full).
+   private final int[] table;
+   private final int mask;
+
+
+   PathCache(int capacity) {
+      this.capacity = Math.max(1, capacity);
+      this.keys = new long[this.capacity];
+      this.paths = new GridPath[this.capacity];
+      this.previous = new int[this.capacity];
+      this.next = new int[this.capacity];
+
+      int tableSize = Integer.highestOneBit(this.capacity * 2 - 1) << 1;
+      this.table = new int[tableSize];
+      this.mask = tableSize - 1;
+      Arrays.fill(this.table, EMPTY);
+   }
+
+
+   // The cached path of the key (null: not cached) - it becomes the most recently used.
+   GridPath get(long key) {
+      int slot = find(key);
+      if (slot < 0) {
+         return null;
+      }
+
+      int entry = this.table[slot];
+      if (entry != this.head) {
+         unlink(entry);
+         linkFirst(entry);
+      }
+      return this.paths[entry];
+   }
+
+   // Caches a path - the least recently used one is dropped if the cache is full.
+   void put(long key, GridPath path) {
+      int slot = find(key);
+      if (slot >= 0) {
+         this.paths[this.table[slot]] = path;
+         return;
+      }
+
+      int entry;
+      if (this.size < this.capacity) {
+         entry = this.size++;
+      }
+      else {
+         entry = this.tail;
+         unlink(entry);
+         removeSlot(find(this.keys[entry]));
+      }
+
+      this.keys[entry] = key;
+      this.paths[entry] = path;
+      linkFirst(entry);
+
+      slot = home(key);
+      while (this.table[slot] != EMPTY) {
+         slot = (slot + 1) & this.mask;
+      }
+      this.table[slot] = entry;
+   }
+
+   void clear() {
+      Arrays.fill(this.table, EMPTY);
+      Arrays.fill(this.paths, null);
+      this.head = EMPTY;
+      this.tail = EMPTY;
+      this.size = 0;
+   }
+
+   private int home(long key) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & this.mask;
+   }
+
+   // Slot of the key in the table (-1: not found).
+   private int find(long key) {
+      for (int slot = home(key); this.table[slot] != EMPTY; slot = (slot + 1) & this.mask) {
+         if (this.keys[this.table[slot]] == key) {
+            return slot;
+         }
+      }
+      return -1;
+   }
+
+   // Removes a slot - the following entries of its probe chain are moved back.
+   private void removeSlot(int slot) {
+      int free = slot;
+      int current = slot;
+      while (true) {
+         current = (current + 1) & this.mask;
+         int entry = this.table[current];
+         if (entry == EMPTY) {
+            break;
+         }
+
+         // The entry can fill the free slot if its home is not between the free and its current slot.
+         int home = home(this.keys[entry]);
+         boolean movable = free <= current ? (home <= free || home > current) : (home <= free && home > current);
+         if (movable) {
+            this.table[free] = entry;
+            free = current;
+         }
+      }
+      this.table[free] = EMPTY;
+   }
+
+   private void linkFirst(int entry) {
+      this.previous[entry] = EMPTY;
+      this.next[entry] = this.head;
+      if (this.head != EMPTY) {
+         this.previous[this.head] = entry;
+      }
+      this.head = entry;
+      if (this.tail == EMPTY) {
+         this.tail = entry;
+      }
+   }
+
+   private void unlink(int entry) {
+      int before = this.previous[entry];
+      int after = this.next[entry];
+      if (before != EMPTY) {
+         this.next[before] = after;
+      }
+      else {
+         this.head = after;
+      }
+      if (after != EMPTY) {
+         this.previous[after] = before;
+      }
+      else {
+         this.tail = before;
+      }
+   }
+
+}
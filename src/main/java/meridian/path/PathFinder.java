@@ -0,0 +1,265 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import meridian.map.CollisionChecker;
+import meridian.map.SolidityMap;
+
+
+/**
+ * Shortest 4-connected paths between the cells of the World Map (every step costs the
+ * same) over the solidity bitset of the collision checker:
+ *
+ * - A_STAR: A* search of the neighbour cells.
+ * - JUMP_POINT: Jump Point Search for 4-connected grids - the straight runs without
+ *   decisions are skipped, only their ends (the jump points) get into the open list.
+ *
+ * The found paths (and the missing ones) are cached by their start, goal and algorithm -
+ * the cache is cleared when the tiles of the map change. Any thread can search: every
+ * thread has its own search buffers, which are reused by its searches.
+ */
+public class PathFinder {
+
+   public enum Algorithm {
+      A_STAR,
+      JUMP_POINT
+   }
+
+   public static final int DEFAULT_CACHE_SIZE = 4096;
+
+   // Cached result of the unreachable goals.
+   private static final GridPath NO_PATH = new GridPath(new int[0], 1);
+
+   private static final int[] STEP_COLS = {1, -1, 0, 0};
+   private static final int[] STEP_ROWS = {0, 0, 1, -1};
+
+   private final CollisionChecker collisionChecker;
+   private final ThreadLocal<SearchBuffers> buffers = ThreadLocal.withInitial(SearchBuffers::new);
+
+   // The cached paths belong to this bitset and its version.
+   private final PathCache cache;
+   private SolidityMap cachedSolidity;
+   private int cachedVersion;
+
+
+   public PathFinder(CollisionChecker collisionChecker) {
+      this(collisionChecker, DEFAULT_CACHE_SIZE);
+   }
+
+   /**
+    * @param collisionChecker its solidity bitset is the map of the searches.
+    * @param cacheSize number of the cached paths.
+    */
+   public PathFinder(CollisionChecker collisionChecker, int cacheSize) {
+      this.collisionChecker = collisionChecker;
+      this.cache = new PathCache(cacheSize);
+   }
+
+
+   /**
+    * Finds a shortest path - from the cache if it has been searched since the last change of the map.
+    *
+    * @return the path (the start and the goal included), null: the goal cannot be reached.
+    */
+   public GridPath findPath(int startCol, int startRow, int goalCol, int goalRow, Algorithm algorithm) {
+      SolidityMap solidity = this.collisionChecker.currentSolidity();
+      int version = solidity.getVersion();
+      int width = solidity.getWidth();
+      if (solidity.isSolid(startCol, startRow) || solidity.isSolid(goalCol, goalRow)) {
+         return null;
+      }
+
+      int start = startRow * width + startCol;
+      int goal = goalRow * width + goalCol;
+      long key = ((long) start * width * solidity.getHeight() + goal) << 1 | algorithm.ordinal();
+
+      synchronized (this.cache) {
+         if (this.cachedSolidity != solidity || this.cachedVersion != version) {
+            this.cache.clear();
+            this.cachedSolidity = solidity;
+            this.cachedVersion = version;
+         }
+         GridPath cached = this.cache.get(key);
+         if (cached != null) {
+            return cached != NO_PATH ? cached : null;
+         }
+      }
+
+      GridPath path = search(solidity, start, goal, algorithm);
+      synchronized (this.cache) {
+         // Not cached if the map has changed during the search.
+         if (this.cachedSolidity == solidity && this.cachedVersion == version && solidity.getVersion() == version) {
+            this.cache.put(key, path != null ? path : NO_PATH);
+         }
+      }
+      return path;
+   }
+
+   // Number of the cached paths.
+   public int getCachedPaths() {
+      synchronized (this.cache) {
+         return this.cache.getSize();
+      }
+   }
+
+   private GridPath search(SolidityMap solidity, int start, int goal, Algorithm algorithm) {
+      int width = solidity.getWidth();
+      int goalCol = goal % width;
+      int goalRow = goal / width;
+
+      SearchBuffers search = this.buffers.get();
+      search.prepare(width * solidity.getHeight());
+      search.open(start, 0, start, distance(start % width, start / width, goalCol, goalRow));
+
+      while (!search.isEmpty()) {
+         int cell = search.pop();
+         if (search.isClosed(cell)) {
+            continue;
+         }
+         search.close(cell);
+         if (cell == goal) {
+            return buildPath(search, start, goal, width);
+         }
+
+         if (algorithm == Algorithm.A_STAR) {
+            expandNeighbours(solidity, search, cell, goalCol, goalRow);
+         }
+         else {
+            expandJumpPoints(solidity, search, start, cell, goalCol, goalRow);
+         }
+      }
+      return null;
+   }
+
+   private static void expandNeighbours(SolidityMap solidity, SearchBuffers search, int cell, int goalCol, int goalRow) {
+      int width = solidity.getWidth();
+      int col = cell % width;
+      int row = cell / width;
+      int cost = search.costs[cell] + 1;
+
+      for (int i = 0; i < STEP_COLS.length; i++) {
+         int nextCol = col + STEP_COLS[i];
+         int nextRow = row + STEP_ROWS[i];
+         if (solidity.isSolid(nextCol, nextRow)) {
+            continue;
+         }
+         int next = nextRow * width + nextCol;
+         if (!search.isClosed(next) && (!search.isOpened(next) || cost < search.costs[next])) {
+            search.open(next, cost, cell, distance(nextCol, nextRow, goalCol, goalRow));
+         }
+      }
+   }
+
+   /*
+    * Jump Point Search on the 4-connected grid. The canonical paths go vertically first -
+    * every cell of a vertical run scans horizontally (as the diagonal runs scan straight on the
+    * 8-connected grids). A cell is a jump point if it is the goal, a turn is forced there (the
+    * cell beside is free, but the cell beside behind is solid) or a scan from it finds one.
+    */
+   private static void expandJumpPoints(SolidityMap solidity, SearchBuffers search, int start, int cell,
+                                        int goalCol, int goalRow) {
+      int width = solidity.getWidth();
+      int col = cell % width;
+      int row = cell / width;
+      int parent = search.parents[cell];
+      int dirCol = Integer.signum(col - parent % width);
+      int dirRow = Integer.signum(row - parent / width);
+
+      if (cell == start) {
+         for (int i = 0; i < STEP_COLS.length; i++) {
+            addJumpPoint(solidity, search, cell, STEP_COLS[i], STEP_ROWS[i], goalCol, goalRow);
+         }
+      }
+      else if (dirRow != 0) {
+         // Vertical run: it goes on and scans both horizontal directions.
+         addJumpPoint(solidity, search, cell, 0, dirRow, goalCol, goalRow);
+         addJumpPoint(solidity, search, cell, 1, 0, goalCol, goalRow);
+         addJumpPoint(solidity, search, cell, -1, 0, goalCol, goalRow);
+      }
+      else {
+         // Horizontal run: it goes on and turns only where it is forced.
+         addJumpPoint(solidity, search, cell, dirCol, 0, goalCol, goalRow);
+         for (int turn = -1; turn <= 1; turn += 2) {
+            if (!solidity.isSolid(col, row + turn) && solidity.isSolid(col - dirCol, row + turn)) {
+               addJumpPoint(solidity, search, cell, 0, turn, goalCol, goalRow);
+            }
+         }
+      }
+   }
+
+   private static void addJumpPoint(SolidityMap solidity, SearchBuffers search, int cell, int dirCol, int dirRow,
+                                    int goalCol, int goalRow) {
+      int width = solidity.getWidth();
+      int col = cell % width;
+      int row = cell / width;
+      int jump = dirRow != 0 ? jumpVertically(solidity, col, row, dirRow, goalCol, goalRow)
+            : jumpHorizontally(solidity, col, row, dirCol, goalCol, goalRow);
+      if (jump < 0) {
+         return;
+      }
+
+      int jumpCol = jump % width;
+      int jumpRow = jump / width;
+      int cost = search.costs[cell] + distance(col, row, jumpCol, jumpRow);
+      if (!search.isClosed(jump) && (!search.isOpened(jump) || cost < search.costs[jump])) {
+         search.open(jump, cost, cell, distance(jumpCol, jumpRow, goalCol, goalRow));
+      }
+   }
+
+   // The next jump point of a horizontal run (-1: the run ends at a wall).
+   private static int jumpHorizontally(SolidityMap solidity, int col, int row, int dirCol, int goalCol, int goalRow) {
+      while (true) {
+         col += dirCol;
+         if (solidity.isSolid(col, row)) {
+            return -1;
+         }
+         if ((col == goalCol && row == goalRow) ||
+               (!solidity.isSolid(col, row - 1) && solidity.isSolid(col - dirCol, row - 1)) ||
+               (!solidity.isSolid(col, row + 1) && solidity.isSolid(col - dirCol, row + 1))) {
+            return row * solidity.getWidth() + col;
+         }
+      }
+   }
+
+   // The next jump point of a vertical run (-1: the run ends at a wall without finding any).
+   private static int jumpVertically(SolidityMap solidity, int col, int row, int dirRow, int goalCol, int goalRow) {
+      while (true) {
+         row += dirRow;
+         if (solidity.isSolid(col, row)) {
+            return -1;
+         }
+         if ((col == goalCol && row == goalRow) ||
+               (!solidity.isSolid(col - 1, row) && solidity.isSolid(col - 1, row - dirRow)) ||
+               (!solidity.isSolid(col + 1, row) && solidity.isSolid(col + 1, row - dirRow)) ||
+               jumpHorizontally(solidity, col, row, 1, goalCol, goalRow) >= 0 ||
+               jumpHorizontally(solidity, col, row, -1, goalCol, goalRow) >= 0) {
+            return row * solidity.getWidth() + col;
+         }
+      }
+   }
+
+   // Cells from the start to the goal - the straight runs between the jump points are filled.
+   private static GridPath buildPath(SearchBuffers search, int start, int goal, int width) {
+      int[] cells = new int[search.costs[goal] + 1];
+      int index = cells.length - 1;
+      int cell = goal;
+      cells[index] = goal;
+
+      while (cell != start) {
+         int parent = search.parents[cell];
+         int step = parent / width == cell / width ? Integer.signum(parent - cell) : Integer.signum(parent - cell) * width;
+         while (cell != parent) {
+            cell += step;
+            cells[--index] = cell;
+         }
+      }
+      return new GridPath(cells, width);
+   }
+
+   private static int distance(int col, int row, int otherCol, int otherRow) {
+      return Math.abs(col - otherCol) + Math.abs(row - otherRow);
+   }
+
+}
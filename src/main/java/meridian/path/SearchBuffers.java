@@ -0,0 +1,129 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import java.util.Arrays;
+
+
+/**
+ * Working arrays of a path search over the cells of a map - reused by the searches of a
+ * thread. The arrays are not cleared between the searches: a cell is valid in the current
+ * search only if its stamp is the stamp of the search.
+ *
+ * The open list is a binary heap in primitive arrays (the cells may be in it more times -
+ * the closed ones are skipped when they are taken out).
+ */
+final class SearchBuffers {
+
+   private static final int INITIAL_HEAP_CAPACITY = 1024;
+
+   // Cost from the start and the previous cell (jump point) of the cells.
+   int[] costs = new int[0];
+   int[] parents = new int[0];
+
+   // Stamps of the opened and the closed cells.
+   private int[] opened = new int[0];
+   private int[] closed = new int[0];
+   private int stamp;
+
+   // Heap ordered by the estimated cost (then by the larger cost from the start).
+   private long[] heapKeys = new long[INITIAL_HEAP_CAPACITY];
+   private int[] heapCells = new int[INITIAL_HEAP_CAPACITY];
+   private int heapSize;
+
+
+   // Starts a new search on a map with so many cells.
+   void prepare(int cells) {
+      if (this.costs.length != cells) {
+         this.costs = new int[cells];
+         this.parents = new int[cells];
+         this.opened = new int[cells];
+         this.closed = new int[cells];
+         this.stamp = 0;
+      }
+
+      if (++this.stamp == Integer.MAX_VALUE) {
+         Arrays.fill(this.opened, 0);
+         Arrays.fill(this.closed, 0);
+         this.stamp = 1;
+      }
+      this.heapSize = 0;
+   }
+
+   boolean isOpened(int cell) {
+      return this.opened[cell] == this.stamp;
+   }
+
+   boolean isClosed(int cell) {
+      return this.closed[cell] == this.stamp;
+   }
+
+   void close(int cell) {
+      this.closed[cell] = this.stamp;
+   }
+
+   // Opens the cell or updates it with a cheaper way to it.
+   void open(int cell, int cost, int parent, int estimate) {
+      this.opened[cell] = this.stamp;
+      this.costs[cell] = cost;
+      this.parents[cell] = parent;
+      push(cell, (long) (cost + estimate) << 32 | (Integer.MAX_VALUE - cost));
+   }
+
+   boolean isEmpty() {
+      return this.heapSize == 0;
+   }
+
+   // Takes out the cell of the lowest estimated cost.
+   int pop() {
+      int cell = this.heapCells[0];
+      int last = --this.heapSize;
+      if (last > 0) {
+         siftDown(this.heapKeys[last], this.heapCells[last]);
+      }
+      return cell;
+   }
+
+   private void push(int cell, long key) {
+      if (this.heapSize == this.heapKeys.length) {
+         this.heapKeys = Arrays.copyOf(this.heapKeys, this.heapSize * 2);
+         this.heapCells = Arrays.copyOf(this.heapCells, this.heapSize * 2);
+      }
+
+      int index = this.heapSize++;
+      while (index > 0) {
+         int parent = (index - 1) >>> 1;
+         if (this.heapKeys[parent] <= key) {
+            break;
+         }
+         this.heapKeys[index] = this.heapKeys[parent];
+         this.heapCells[index] = this.heapCells[parent];
+         index = parent;
+      }
+      this.heapKeys[index] = key;
+      this.heapCells[index] = cell;
+   }
+
+   // Places the element to the root and moves it down to its place.
+   private void siftDown(long key, int cell) {
+      int index = 0;
+      int half = this.heapSize >>> 1;
+      while (index < half) {
+         int child = 2 * index + 1;
+         if (child + 1 < this.heapSize && this.heapKeys[child + 1] < this.heapKeys[child]) {
+            child++;
+         }
+         if (key <= this.heapKeys[child]) {
+            break;
+         }
+         this.heapKeys[index] = this.heapKeys[child];
+         this.heapCells[index] = this.heapCells[child];
+         index = child;
+      }
+      this.heapKeys[index] = key;
+      this.heapCells[index] = cell;
+   }
+
+}
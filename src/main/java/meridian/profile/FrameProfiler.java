@@ -0,0 +1,173 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.profile;
+
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Time of the stages of the frames. The stages are timed by start() / stop() pairs, their
+ * times are summed up in the frame (a frame can have more ticks), and endFrame() stores
+ * the sums in rings of the last frames. Recording does not allocate.
+ *
+ * The stages are recorded on the game loop's thread, or on the event dispatch thread while
+ * the game loop waits for it (GamePanel) - the profiler is not shared by running threads.
+ *
+ * Optionally every frame is written into a CSV file (nanoseconds) - this part allocates.
+ */
+public class FrameProfiler {
+
+   // Number of the frames of the statistics.
+   public static final int HISTORY = 256;
+
+   // The CSV file is flushed after so many frames.
+   private static final int CSV_FLUSH_FRAMES = 60;
+
+   public enum Stage {
+      PLAYER_UPDATE("player update"),
+      MONSTER_UPDATE("monster update"),
+      UPDATE_LIGHTS("update lights"),
+      // Part of the lights: field of view of the viewer and the light sources.
+      VISIBILITY("visibility"),
+      DRAW_MAP("draw map"),
+      PLAYER_DRAW("player draw");
+
+      @Getter
+      private final String label;
+
+      Stage(String label) {
+         this.label = label;
+      }
+   }
+
+   private static final Stage[] STAGES = Stage.values();
+
+   // Time of the stages in the current frame.
+   private final long[] frameSums = new long[STAGES.length];
+
+   private final Map<Stage, TimingRing> stageTimes = new EnumMap<>(Stage.class);
+
+   // Time between the ends of the frames.
+   @Getter
+   private final TimingRing frameTimes = new TimingRing(HISTORY);
+   private long lastFrameEnd;
+
+   @Getter
+   private long frames;
+
+   private BufferedWriter csv;
+
+
+   public FrameProfiler() {
+      for (Stage stage : STAGES) {
+         this.stageTimes.put(stage, new TimingRing(HISTORY));
+      }
+   }
+
+   /**
+    * @param csvFile target of the frame times (null: no CSV).
+    */
+   public FrameProfiler(Path csvFile) {
+      this();
+      if (csvFile != null) {
+         openCsv(csvFile);
+      }
+   }
+
+
+   private void openCsv(Path csvFile) {
+      try {
+         this.csv = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8);
+         this.csv.write("frame,frame_ns");
+         for (Stage stage : STAGES) {
+            this.csv.write(',');
+            this.csv.write(stage.name().toLowerCase());
+            this.csv.write("_ns");
+         }
+         this.csv.newLine();
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not create the profile file '" + csvFile + "': " + e);
+      }
+   }
+
+   public long start() {
+      return System.nanoTime();
+   }
+
+   // Adds the time from 'start' to the stage in the current frame.
+   public void stop(Stage stage, long start) {
+      this.frameSums[stage.ordinal()] += System.nanoTime() - start;
+   }
+
+   public TimingRing getStageTimes(Stage stage) {
+      return this.stageTimes.get(stage);
+   }
+
+   // Closes the current frame.
+   public void endFrame() {
+      long now = System.nanoTime();
+      long frameTime = this.lastFrameEnd == 0 ? 0 : now - this.lastFrameEnd;
+      this.lastFrameEnd = now;
+      if (frameTime > 0) {
+         this.frameTimes.add(frameTime);
+      }
+
+      for (Stage stage : STAGES) {
+         this.stageTimes.get(stage).add(this.frameSums[stage.ordinal()]);
+      }
+      this.frames++;
+
+      if (this.csv != null) {
+         writeCsv(frameTime);
+      }
+
+      Arrays.fill(this.frameSums, 0);
+   }
+
+   private void writeCsv(long frameTime) {
+      try {
+         this.csv.write(Long.toString(this.frames));
+         this.csv.write(',');
+         this.csv.write(Long.toString(frameTime));
+         for (Stage stage : STAGES) {
+            this.csv.write(',');
+            this.csv.write(Long.toString(this.frameSums[stage.ordinal()]));
+         }
+         this.csv.newLine();
+
+         if (this.frames % CSV_FLUSH_FRAMES == 0) {
+            this.csv.flush();
+         }
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not write the profile file: " + e);
+      }
+   }
+
+   // Closes the CSV file (if any).
+   public void close() {
+      if (this.csv == null) {
+         return;
+      }
+      try {
+         this.csv.close();
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not close the profile file: " + e);
+      }
+      this.csv = null;
+   }
+
+}
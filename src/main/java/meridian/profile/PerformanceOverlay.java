@@ -0,0 +1,95 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.profile;
+
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+
+/**
+ * Statistics of the FrameProfiler over the screen: FPS, min, average and p99 time of the
+ * stages, garbage collections and heap. The text is refreshed only a few times a second,
+ * drawing the same lines does not allocate.
+ */
+public class PerformanceOverlay {
+
+   // The text is refreshed after so many frames.
+   private static final int REFRESH_FRAMES = 30;
+
+   private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+   private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+   private static final Color TEXT = new Color(220, 220, 140);
+   private static final int MARGIN = 6;
+   private static final int LINE_HEIGHT = 14;
+   private static final int WIDTH = 320;
+
+   private static final double NANOS_PER_MILLI = 1_000_000.0;
+   private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+   private final FrameProfiler profiler;
+   private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+   // Header, frame time, stages, GC and heap lines.
+   private final String[] lines = new String[FrameProfiler.Stage.values().length + 4];
+   private long refreshedFrame = -1;
+
+
+   public PerformanceOverlay(FrameProfiler profiler) {
+      this.profiler = profiler;
+   }
+
+
+   public void draw(Graphics2D g2) {
+      if (this.lines[0] == null || this.profiler.getFrames() - this.refreshedFrame >= REFRESH_FRAMES) {
+         refresh();
+      }
+
+      g2.setComposite(AlphaComposite.SrcOver);
+      g2.setColor(BACKGROUND);
+      g2.fillRect(MARGIN, MARGIN, WIDTH, this.lines.length * LINE_HEIGHT + MARGIN);
+
+      g2.setFont(FONT);
+      g2.setColor(TEXT);
+      for (int i = 0; i < this.lines.length; i++) {
+         g2.drawString(this.lines[i], MARGIN * 2, MARGIN + (i + 1) * LINE_HEIGHT);
+      }
+
+   }
+
+   private void refresh() {
+      this.refreshedFrame = this.profiler.getFrames();
+
+      TimingRing frameTimes = this.profiler.getFrameTimes();
+      long averageFrame = frameTimes.getAverage();
+      double fps = averageFrame > 0 ? 1_000_000_000.0 / averageFrame : 0.0;
+
+      int line = 0;
+      this.lines[line++] = String.format("FPS %6.1f      min ms  avg ms  p99 ms", fps);
+      this.lines[line++] = timeLine("frame", frameTimes);
+      for (FrameProfiler.Stage stage : FrameProfiler.Stage.values()) {
+         this.lines[line++] = timeLine(stage.getLabel(), this.profiler.getStageTimes(stage));
+      }
+
+      long collections = 0;
+      long collectionTime = 0;
+      for (GarbageCollectorMXBean collector : this.collectors) {
+         collections += Math.max(0, collector.getCollectionCount());
+         collectionTime += Math.max(0, collector.getCollectionTime());
+      }
+      this.lines[line++] = String.format("GC   %d collections, %d ms", collections, collectionTime);
+
+      Runtime runtime = Runtime.getRuntime();
+      long used = runtime.totalMemory() - runtime.freeMemory();
+      this.lines[line] = String.format("heap %d / %d MB", used / BYTES_PER_MEGABYTE, runtime.totalMemory() / BYTES_PER_MEGABYTE);
+   }
+
+   private static String timeLine(String label, TimingRing times) {
+      return String.format("%-14s %7.2f %7.2f %7.2f", label, times.getMin() / NANOS_PER_MILLI,
+            times.getAverage() / NANOS_PER_MILLI, times.getPercentile(99.0) / NANOS_PER_MILLI);
+   }
+
+}
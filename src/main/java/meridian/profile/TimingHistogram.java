@@ -0,0 +1,82 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.profile;
+
+import java.util.Arrays;
+
+
+/**
+ * Histogram of durations with logarithmic buckets split into linear sub-buckets (the
+ * layout of the HdrHistogram): the values below 64 ns are exact, the bigger ones are
+ * counted with 32 sub-buckets per power of two (about 3% precision). Recording and
+ * querying do not allocate.
+ */
+public class TimingHistogram {
+
+   // Linear sub-buckets per power of two (5 bits).
+   private static final int SUB_BUCKET_BITS = 5;
+   private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+   // Largest counted value: 2^40 ns (about 18 minutes) - bigger values are counted there.
+   private static final int MAX_VALUE_BITS = 40;
+   private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+   private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+   private final long[] counts = new long[BUCKET_COUNT];
+   private long totalCount;
+
+
+   public void reset() {
+      Arrays.fill(this.counts, 0);
+      this.totalCount = 0;
+   }
+
+   public void record(long value) {
+      this.counts[bucketIndex(Math.min(Math.max(value, 0), MAX_VALUE))]++;
+      this.totalCount++;
+   }
+
+   public long getTotalCount() {
+      return this.totalCount;
+   }
+
+   /**
+    * @param percentile 0 - 100.
+    * @return highest value of the bucket of the percentile (0 if nothing is recorded).
+    */
+   public long getValueAtPercentile(double percentile) {
+      if (this.totalCount == 0) {
+         return 0;
+      }
+
+      long needed = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.totalCount));
+      long counted = 0;
+      for (int index = 0; index < BUCKET_COUNT; index++) {
+         counted += this.counts[index];
+         if (counted >= needed) {
+            return highestValueOf(index);
+         }
+      }
+      return MAX_VALUE;
+   }
+
+   static int bucketIndex(long value) {
+      if (value < 2 * SUB_BUCKETS) {
+         return (int) value;
+      }
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      return shift * SUB_BUCKETS + (int) (value >>> shift);
+   }
+
+   static long highestValueOf(int index) {
+      if (index < 2 * SUB_BUCKETS) {
+         return index;
+      }
+      int shift = index / SUB_BUCKETS - 1;
+      long subBucket = index - (long) shift * SUB_BUCKETS;
+      return ((subBucket + 1) << shift) - 1;
+   }
+
+}
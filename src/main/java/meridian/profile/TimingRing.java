@@ -0,0 +1,82 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.profile;
+
+import lombok.Getter;
+
+
+/**
+ * The last samples of a duration in a ring - the statistics are calculated from these,
+ * so they follow the current state of the game. Adding a sample and calculating the
+ * statistics do not allocate.
+ */
+public class TimingRing {
+
+   private final long[] samples;
+   private int next;
+
+   // Number of the samples in the ring.
+   @Getter
+   private int count;
+
+   // Last added sample.
+   @Getter
+   private long last;
+
+   private final TimingHistogram histogram = new TimingHistogram();
+
+
+   public TimingRing(int capacity) {
+      this.samples = new long[capacity];
+   }
+
+
+   public void add(long nanos) {
+      this.samples[this.next] = nanos;
+      this.next = (this.next + 1) % this.samples.length;
+      this.count = Math.min(this.count + 1, this.samples.length);
+      this.last = nanos;
+   }
+
+   public long getMin() {
+      long min = this.count > 0 ? Long.MAX_VALUE : 0;
+      for (int i = 0; i < this.count; i++) {
+         min = Math.min(min, this.samples[i]);
+      }
+      return min;
+   }
+
+   public long getMax() {
+      long max = 0;
+      for (int i = 0; i < this.count; i++) {
+         max = Math.max(max, this.samples[i]);
+      }
+      return max;
+   }
+
+   public long getAverage() {
+      if (this.count == 0) {
+         return 0;
+      }
+      long sum = 0;
+      for (int i = 0; i < this.count; i++) {
+         sum += this.samples[i];
+      }
+      return sum / this.count;
+   }
+
+   /**
+    * @param percentile 0 - 100.
+    * @return the percentile of the samples (with the precision of the TimingHistogram).
+    */
+   public long getPercentile(double percentile) {
+      this.histogram.reset();
+      for (int i = 0; i < this.count; i++) {
+         this.histogram.record(this.samples[i]);
+      }
+      return this.histogram.getValueAtPercentile(percentile);
+   }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Writes the controls of the ticks and the state hashes into a recording (see
+ * RecordingFormat). The same controls of consecutive ticks are written as one run.
+ *
+ * The game thread records, the recording can be closed by an other thread (shutdown).
+ */
+public class InputRecorder implements AutoCloseable {
+
+   private final DataOutputStream output;
+
+   @Getter
+   private final int hashInterval;
+
+   // Controls of the not written run and its length.
+   private int runButtons;
+   private long runTicks;
+
+   @Getter
+   private long ticks;
+
+   private boolean closed;
+
+
+   /**
+    * @param output target of the recording (closed with the recorder).
+    * @param mapId id of the map at the start.
+    * @param startCol column of the player at the start.
+    * @param startRow row of the player at the start.
+    * @param hashInterval ticks between the state hashes.
+    */
+   public InputRecorder(OutputStream output, int mapId, int startCol, int startRow, int hashInterval) {
+      if (hashInterval < 1) {
+         throw new IllegalStateException("Invalid hash interval: " + hashInterval);
+      }
+      this.output = new DataOutputStream(new BufferedOutputStream(output));
+      this.hashInterval = hashInterval;
+
+      try {
+         this.output.writeInt(RecordingFormat.MAGIC);
+         this.output.writeShort(RecordingFormat.VERSION);
+         this.output.writeInt(mapId);
+         this.output.writeInt(startCol);
+         this.output.writeInt(startRow);
+         this.output.writeInt(hashInterval);
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not write the input recording: " + e);
+      }
+   }
+
+   public static InputRecorder create(Path file, int mapId, int startCol, int startRow, int hashInterval) {
+      try {
+         return new InputRecorder(Files.newOutputStream(file), mapId, startCol, startRow, hashInterval);
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not create the input recording '" + file + "': " + e);
+      }
+   }
+
+
+   // Controls of the next tick (button mask of InputState).
+   public synchronized void record(int buttons) {
+      if (this.closed) {
+         return;
+      }
+      if (buttons < 0 || buttons > RecordingFormat.MAX_BUTTONS) {
+         throw new IllegalStateException("Invalid button mask: " + buttons);
+      }
+
+      if (buttons != this.runButtons && this.runTicks > 0) {
+         writeRun();
+      }
+      this.runButtons = buttons;
+      this.runTicks++;
+      this.ticks++;
+   }
+
+   // Tells if the state hash must be recorded after the recorded ticks.
+   public boolean isCheckpoint() {
+      return this.ticks > 0 && this.ticks % this.hashInterval == 0;
+   }
+
+   // State hash after the last recorded tick (on the checkpoints).
+   public synchronized void checkpoint(long hash) {
+      if (this.closed) {
+         return;
+      }
+      try {
+         this.output.write(RecordingFormat.HASH_RECORD);
+         this.output.writeLong(hash);
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not write the input recording: " + e);
+      }
+   }
+
+   private void writeRun() {
+      try {
+         this.output.write(this.runButtons);
+         writeVarint(this.runTicks);
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not write the input recording: " + e);
+      }
+      this.runTicks = 0;
+   }
+
+   private void writeVarint(long value) throws IOException {
+      long rest = value;
+      while (rest >= 0x80) {
+         this.output.write((int) (rest & 0x7F) | 0x80);
+         rest >>>= 7;
+      }
+      this.output.write((int) rest);
+   }
+
+   @Override
+   public synchronized void close() {
+      if (this.closed) {
+         return;
+      }
+      this.closed = true;
+
+      try {
+         if (this.runTicks > 0) {
+            writeRun();
+         }
+         this.output.write(RecordingFormat.END_RECORD);
+         writeVarint(this.ticks);
+         this.output.close();
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not close the input recording: " + e);
+      }
+   }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+import lombok.Getter;
+import meridian.main.InputScript;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+
+/**
+ * A read recording (see RecordingFormat) - the controls of its ticks as runs and its state
+ * hashes. It is the script of the replay: the ticks after the end have no controls. A
+ * recording is replayed by one thread at a time (it follows the replayed tick).
+ */
+public class InputRecording implements InputScript {
+
+   @Getter
+   private final int mapId;
+   @Getter
+   private final int startCol;
+   @Getter
+   private final int startRow;
+   @Getter
+   private final int hashInterval;
+
+   // Number of the recorded ticks.
+   @Getter
+   private final long ticks;
+
+   // Runs: first tick after the run and its controls.
+   private final long[] runEnds;
+   private final byte[] runButtons;
+
+   // State hashes after the ticks (k + 1) * hashInterval.
+   private final long[] hashes;
+
+   // Run of the last asked tick - the replay asks the ticks in order.
+   private int cursor;
+
+
+   private InputRecording(int mapId, int startCol, int startRow, int hashInterval, long ticks,
+                          long[] runEnds, byte[] runButtons, long[] hashes) {
+      this.mapId = mapId;
+      this.startCol = startCol;
+      this.startRow = startRow;
+      this.hashInterval = hashInterval;
+      this.ticks = ticks;
+      this.runEnds = runEnds;
+      this.runButtons = runButtons;
+      this.hashes = hashes;
+   }
+
+   public static InputRecording read(Path file) {
+      try (InputStream input = Files.newInputStream(file)) {
+         return read(input);
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not read the input recording '" + file + "': " + e);
+      }
+   }
+
+   public static InputRecording read(InputStream stream) {
+      DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+      try {
+         if (input.readInt() != RecordingFormat.MAGIC) {
+            throw new IllegalStateException("Not an input recording");
+         }
+         short version = input.readShort();
+         if (version != RecordingFormat.VERSION) {
+            throw new IllegalStateException("Unsupported input recording version: " + version);
+         }
+         int mapId = input.readInt();
+         int startCol = input.readInt();
+         int startRow = input.readInt();
+         int hashInterval = input.readInt();
+
+         long[] runEnds = new long[64];
+         byte[] runButtons = new byte[64];
+         long[] hashes = new long[64];
+         int runs = 0;
+         int hashCount = 0;
+         long tick = 0;
+
+         while (true) {
+            int record = input.readUnsignedByte();
+            if (record == RecordingFormat.END_RECORD) {
+               long ticks = readVarint(input);
+               if (ticks != tick) {
+                  throw new IllegalStateException("Broken input recording: " + tick + " ticks of " + ticks);
+               }
+               break;
+            }
+
+            if (record == RecordingFormat.HASH_RECORD) {
+               if (hashCount == hashes.length) {
+                  hashes = Arrays.copyOf(hashes, hashCount * 2);
+               }
+               hashes[hashCount++] = input.readLong();
+            }
+            else if (record <= RecordingFormat.MAX_BUTTONS) {
+               if (runs == runEnds.length) {
+                  runEnds = Arrays.copyOf(runEnds, runs * 2);
+                  runButtons = Arrays.copyOf(runButtons, runs * 2);
+               }
+               tick += readVarint(input);
+               runEnds[runs] = tick;
+               runButtons[runs++] = (byte) record;
+            }
+            else {
+               throw new IllegalStateException("Broken input recording: unknown record " + record);
+            }
+         }
+
+         return new InputRecording(mapId, startCol, startRow, hashInterval, tick,
+               Arrays.copyOf(runEnds, runs), Arrays.copyOf(runButtons, runs), Arrays.copyOf(hashes, hashCount));
+      }
+      catch (EOFException e) {
+         throw new IllegalStateException("Input recording without end");
+      }
+      catch (IOException e) {
+         throw new IllegalStateException("Can not read the input recording: " + e);
+      }
+
+   }
+
+   private static long readVarint(DataInputStream input) throws IOException {
+      long value = 0;
+      int shift = 0;
+      int b;
+      do {
+         b = input.readUnsignedByte();
+         value |= (long) (b & 0x7F) << shift;
+         shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+   }
+
+   @Override
+   public int buttonsAt(long tick) {
+      if (tick < 0 || tick >= this.ticks) {
+         return 0;
+      }
+
+      // Usually the same or the next run.
+      if (this.cursor >= this.runEnds.length || (this.cursor > 0 && tick < this.runEnds[this.cursor - 1])) {
+         this.cursor = 0;
+      }
+      while (tick >= this.runEnds[this.cursor]) {
+         this.cursor++;
+      }
+      return this.runButtons[this.cursor];
+   }
+
+   /**
+    * Compares the state hash of a replay with the recorded one.
+    *
+    * @param ticks number of the replayed ticks.
+    * @param hash state hash after the ticks.
+    * @return false if the hash of the tick is recorded and differs.
+    */
+   public boolean matches(long ticks, long hash) {
+      if (ticks <= 0 || ticks % this.hashInterval != 0) {
+         return true;
+      }
+      long index = ticks / this.hashInterval - 1;
+      return index >= this.hashes.length || this.hashes[(int) index] == hash;
+   }
+
+   public int getHashCount() {
+      return this.hashes.length;
+   }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+
+/**
+ * Layout of the input recordings (big endian):
+ *
+ * <pre>
+ *  header:  int magic 'DREC', short version, int map id, int start col, int start row,
+ *           int hash interval (ticks)
+ *  records: RUN   - byte buttons (0 - 15), varint ticks: the same controls in consecutive ticks
+ *           HASH  - byte 0x80, long state hash: the k-th hash is taken after tick (k + 1) * interval
+ *           END   - byte 0xFF, varint number of the ticks
+ * </pre>
+ *
+ * The controls change rarely compared to the ticks, so a minute of play takes some hundred
+ * bytes. The varints have 7 bits per byte, the high bit marks the following byte.
+ */
+final class RecordingFormat {
+
+   static final int MAGIC = 0x44524543; // 'DREC'
+   static final short VERSION = 1;
+
+   static final int HASH_RECORD = 0x80;
+   static final int END_RECORD = 0xFF;
+
+   // Highest button mask of a run record.
+   static final int MAX_BUTTONS = 0x0F;
+
+
+   private RecordingFormat() {
+
+   }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+import meridian.headless.HeadlessGame;
+import meridian.main.InputScript;
+
+import java.nio.file.Path;
+
+
+/**
+ * Replays a recording in a headless game as fast as it can, and checks the state hashes -
+ * it stops at the first difference. The game on the screen replays at real speed (see
+ * Game and the 'meridian.replay' property).
+ *
+ * Run: java -Djava.awt.headless=true meridian.replay.ReplayDriver [recording file]
+ */
+public final class ReplayDriver {
+
+   private ReplayDriver() {
+
+   }
+
+
+   /**
+    * @param recording replayed recording.
+    * @param game game of the replay (its map is loaded by the recording).
+    * @return outcome of the replay.
+    */
+   public static ReplayResult replay(InputRecording recording, HeadlessGame game) {
+      long start = System.nanoTime();
+      game.loadMap(recording.getMapId(), recording.getStartCol(), recording.getStartRow());
+
+      int checkedHashes = 0;
+      for (long tick = 0; tick < recording.getTicks(); tick++) {
+         game.getInput().setButtons(recording.buttonsAt(tick));
+         game.tick();
+
+         long ticks = tick + 1;
+         if (ticks % recording.getHashInterval() == 0 && checkedHashes < recording.getHashCount()) {
+            if (!recording.matches(ticks, StateHash.of(recording.getMapId(), ticks, game.getPlayer()))) {
+               return new ReplayResult(ticks, checkedHashes, ticks, System.nanoTime() - start);
+            }
+            checkedHashes++;
+         }
+      }
+      return new ReplayResult(recording.getTicks(), checkedHashes, -1, System.nanoTime() - start);
+   }
+
+   /**
+    * Records a scripted headless run.
+    *
+    * @param recorder target of the recording (its map and start are given by the recorder's creator).
+    * @param game game of the run with its map loaded and player placed.
+    * @param script controls of the run.
+    * @param ticks number of the ticks.
+    */
+   public static void record(InputRecorder recorder, HeadlessGame game, InputScript script, long ticks) {
+      int mapId = game.getMapManager().getCurrentMapId();
+      for (long tick = 0; tick < ticks; tick++) {
+         int buttons = script.buttonsAt(tick);
+         recorder.record(buttons);
+         game.getInput().setButtons(buttons);
+         game.tick();
+
+         if (recorder.isCheckpoint()) {
+            recorder.checkpoint(StateHash.of(mapId, recorder.getTicks(), game.getPlayer()));
+         }
+      }
+   }
+
+   public static void main(String[] args) {
+      if (args.length < 1) {
+         throw new IllegalStateException("Usage: ReplayDriver <recording file>");
+      }
+
+      ReplayResult result = replay(InputRecording.read(Path.of(args[0])), new HeadlessGame());
+      System.out.printf("%d ticks in %.1f ms, %d hashes checked: %s%n", result.getTicks(), result.getNanos() / 1_000_000.0,
+            result.getCheckedHashes(), result.isDiverged() ? "diverged at tick " + result.getDivergedTick() : "ok");
+   }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+import lombok.Getter;
+
+
+// Outcome of a replay.
+@Getter
+public class ReplayResult {
+
+   // Replayed ticks.
+   private final long ticks;
+
+   // Compared state hashes.
+   private final int checkedHashes;
+
+   // First tick whose state hash differs from the recorded one, -1: the replay did not diverge.
+   private final long divergedTick;
+
+   // Running time of the replay.
+   private final long nanos;
+
+
+   public ReplayResult(long ticks, int checkedHashes, long divergedTick, long nanos) {
+      this.ticks = ticks;
+      this.checkedHashes = checkedHashes;
+      this.divergedTick = divergedTick;
+      this.nanos = nanos;
+   }
+
+   public boolean isDiverged() {
+      return this.divergedTick >= 0;
+   }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+import meridian.entity.Player;
+import meridian.main.SplitMix64;
+
+
+/**
+ * Hash of the simulated state of a game - equal hashes of a recording and its replay at
+ * the same tick mean that the replay has not diverged.
+ */
+public final class StateHash {
+
+   private StateHash() {
+
+   }
+
+
+   /**
+    * @param mapId id of the loaded map.
+    * @param ticks number of the ticks since the start.
+    * @param player the player after the tick.
+    * @return hash of the state.
+    */
+   public static long of(int mapId, long ticks, Player player) {
+      long hash = next(mapId);
+      hash = next(hash ^ ticks);
+      hash = next(hash ^ player.getWorldCol());
+      hash = next(hash ^ player.getWorldRow());
+      hash = next(hash ^ player.getShiftX());
+      hash = next(hash ^ player.getShiftY());
+      hash = next(hash ^ player.getDirection().ordinal());
+      hash = next(hash ^ player.getAnimationPhaseIndex());
+      return next(hash ^ player.getCurrentDrawedFrame());
+   }
+
+   // One step of the SplitMix64 generator from the value.
+   private static long next(long value) {
+      return SplitMix64.mix(value + SplitMix64.GOLDEN_GAMMA);
+   }
+
+}
@@ -23,6 +23,10 @@ public class Tile {
    // graphic appearance
    private BufferedImage image;
 
+   // position of the screen sized tile in the atlas of TileManager
+   private int atlasX;
+   private int atlasY;
+
    // walkable (false: yes, true: block walking - def: walkable
    private boolean solid = false;
 
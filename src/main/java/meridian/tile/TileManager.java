@@ -4,8 +4,10 @@
  */
 package meridian.tile;
 
+import lombok.Getter;
 import meridian.main.GameParam;
 
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.RasterFormatException;
 import java.io.BufferedReader;
@@ -22,22 +24,76 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 public class TileManager {
 
+   // Number of the tiles in a row of the atlas images.
+   private static final int ATLAS_COLUMNS = 16;
+
    private Tile[] tiles;
 
+   // Name of the loaded tile set - switching between maps of the same set keeps it.
+   private String loadedTileSetName;
+
+   // All tiles pre-scaled to the screen tile size in one screen compatible image.
+   @Getter
+   private BufferedImage atlas;
+
+   // False: only the properties of the tiles are loaded (headless simulation), they cannot be drawn.
+   @Getter
+   private final boolean graphics;
+
+
+   public TileManager() {
+      this(true);
+   }
+
+   private TileManager(boolean graphics) {
+      this.graphics = graphics;
+   }
+
+   // Tiles without images - solidity and transparency only.
+   public static TileManager withoutGraphics() {
+      return new TileManager(false);
+   }
+
+
+   /**
+    * Creates an image in the format of the screen, so drawing it is a plain copy (and
+    * it can be cached in the video memory).
+    *
+    * @param width width of the image.
+    * @param height height of the image.
+    * @param transparency Transparency.OPAQUE, BITMASK or TRANSLUCENT.
+    * @return new empty image.
+    */
+   public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+      if (GraphicsEnvironment.isHeadless()) {
+         int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+         return new BufferedImage(width, height, type);
+      }
+      return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+            .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+   }
 
    public void loadTiles(String tilesFileName) {
+      if (tilesFileName.equals(this.loadedTileSetName)) {
+         return;
+      }
+
       List<TileConfig> tileConfigs = getTileConfigsFromJSON("/tiles/" + tilesFileName + ".json");
       this.tiles = new Tile[tileConfigs.size()];
 
+      if (!this.graphics) {
+         for (TileConfig tc : tileConfigs) {
+            this.tiles[tc.getId()] = createTile(tc);
+         }
+         this.loadedTileSetName = tilesFileName;
+         return;
+      }
+
       BufferedImage image;
       try {
          image = ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream("/tiles/" + tilesFileName + ".png")));
          for (TileConfig tc : tileConfigs) {
-            Tile tile = new Tile();
-            tile.setId(tc.getId());
-            tile.setSolid(tc.isSolid());
-            tile.setDescription(tc.getDescription());
-            tile.setTileTransparency(tc.getShadeFactor());
+            Tile tile = createTile(tc);
 
             BufferedImage tileImage = image.getSubimage(
                   GameParam.ORIGINAL_TILE_SIZE * tc.getX(),
@@ -49,12 +105,58 @@ public class TileManager {
 
             this.tiles[index] = tile;
          }
+         this.loadedTileSetName = tilesFileName;
+         buildAtlas();
       } catch (IOException | RasterFormatException e) {
          throw new IllegalStateException("Can not read dungeon's tile config file: " + e);
       }
 
    }
 
+   private static Tile createTile(TileConfig tc) {
+      Tile tile = new Tile();
+      tile.setId(tc.getId());
+      tile.setSolid(tc.isSolid());
+      tile.setDescription(tc.getDescription());
+      tile.setTileTransparency(tc.getShadeFactor());
+      return tile;
+   }
+
+   // Draws all tiles scaled up into the atlas.
+   private void buildAtlas() {
+      int atlasRows = (this.tiles.length + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+      int width = ATLAS_COLUMNS * GameParam.TILE_SIZE;
+      int height = atlasRows * GameParam.TILE_SIZE;
+
+      this.atlas = createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+      Graphics2D g2 = this.atlas.createGraphics();
+      for (int i = 0; i < this.tiles.length; i++) {
+         Tile tile = this.tiles[i];
+         if (tile != null) {
+            tile.setAtlasX((i % ATLAS_COLUMNS) * GameParam.TILE_SIZE);
+            tile.setAtlasY((i / ATLAS_COLUMNS) * GameParam.TILE_SIZE);
+            g2.drawImage(tile.getImage(), tile.getAtlasX(), tile.getAtlasY(),
+                  GameParam.TILE_SIZE, GameParam.TILE_SIZE, null);
+         }
+      }
+      g2.dispose();
+   }
+
+   /**
+    * Draws a tile in screen size from the atlas (copy without scaling).
+    *
+    * @param g2 target graphics.
+    * @param index id of the tile.
+    * @param x left of the tile on the target.
+    * @param y top of the tile on the target.
+    */
+   public void drawTile(Graphics2D g2, int index, int x, int y) {
+      Tile tile = getTileByIndex(index);
+      g2.drawImage(this.atlas, x, y, x + GameParam.TILE_SIZE, y + GameParam.TILE_SIZE,
+            tile.getAtlasX(), tile.getAtlasY(),
+            tile.getAtlasX() + GameParam.TILE_SIZE, tile.getAtlasY() + GameParam.TILE_SIZE, null);
+   }
+
    public Tile getTileByIndex(int index) {
       if (index >= 0 && index < tiles.length) {
          return tiles[index];
@@ -0,0 +1,140 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.entity;
+
+import meridian.light.LightSource;
+import meridian.main.GameParam;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.TestMaps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class EntityStoreTest {
+
+   private static final int SIZE = 128;
+
+   private MapManager mapManager;
+   private CollisionChecker collisionChecker;
+
+   // Walls around the map and on every 8th column (with a gap on every 4th row).
+   @BeforeEach
+   void loadMap() {
+      mapManager = TestMaps.load(SIZE, SIZE, (col, row) ->
+            col == 0 || row == 0 || col == SIZE - 1 || row == SIZE - 1 || (col % 8 == 0 && row % 4 != 0));
+      collisionChecker = new CollisionChecker(mapManager);
+   }
+
+   @Test
+   void entitiesStepCellByCell() {
+      EntityStore store = new EntityStore(1);
+      MovementSystem movement = new MovementSystem(collisionChecker, null);
+      AnimationSystem animation = new AnimationSystem();
+
+      int id = store.create(5, 5, GameParam.PIXEL_SCALE, 5);
+      store.setIntent(id, Direction.RIGHT);
+
+      // Two cells to the right, then the wall of the 8th column stops it.
+      int ticksPerCell = GameParam.TILE_SIZE / GameParam.PIXEL_SCALE;
+      for (int i = 0; i < ticksPerCell * 4; i++) {
+         movement.update(store);
+         animation.update(store);
+      }
+      assertEquals(7, store.getCol(id));
+      assertEquals(0, store.getShiftX(id));
+      assertFalse(store.isMoving(id));
+      assertEquals(Direction.RIGHT, store.getFacing(id));
+
+      // Half a step up, then it stops in the middle of the next cell.
+      store.setIntent(id, Direction.UP);
+      for (int i = 0; i < ticksPerCell / 2; i++) {
+         movement.update(store);
+         animation.update(store);
+      }
+      assertEquals(4, store.getRow(id));
+      assertTrue(store.isMoving(id));
+      assertTrue(store.getAnimationPhase(id) > 0);
+      store.setIntent(id, null);
+      for (int i = 0; i < ticksPerCell; i++) {
+         movement.update(store);
+      }
+      assertEquals(4, store.getRow(id));
+      assertEquals(0, store.getShiftY(id));
+   }
+
+   @Test
+   void destroyedEntitiesAreReplacedByTheLastOne() {
+      EntityStore store = new EntityStore(2);
+      LightEmissionSystem lights = new LightEmissionSystem(mapManager.getLightingEngine());
+      int first = store.create(1, 1, 1, 5);
+      int second = store.create(2, 2, 1, 5);
+      int third = store.create(3, 3, 1, 5);
+      store.setLightRadius(first, 1);
+      lights.update(store);
+      LightSource light = store.getLight(first);
+      assertTrue(mapManager.getLightingEngine().getLights().contains(light));
+
+      store.destroy(first);
+      lights.update(store);
+      assertFalse(store.isAlive(first));
+      assertFalse(mapManager.getLightingEngine().getLights().contains(light));
+      assertEquals(2, store.getSize());
+      assertEquals(0, store.indexOf(third));
+      assertEquals(3, store.getCol(third));
+      assertEquals(2, store.getCol(second));
+
+      // The slot is reused with a new id.
+      int fourth = store.create(4, 4, 1, 5);
+      assertFalse(store.isAlive(first));
+      assertTrue(store.isAlive(fourth));
+      assertNull(store.getLight(fourth));
+   }
+
+   @Test
+   void parallelMovementIsTheSameAsTheSequential() {
+      EntityStore sequential = new EntityStore();
+      EntityStore parallel = new EntityStore();
+      Random random = new Random(3);
+      int count = MovementSystem.PARALLEL_THRESHOLD * 2;
+      for (int i = 0; i < count; i++) {
+         int col = 1 + random.nextInt(SIZE - 2);
+         int row = 1 + random.nextInt(SIZE - 2);
+         Direction direction = EntityStore.DIRECTIONS[random.nextInt(4)];
+         sequential.setIntent(sequential.create(col, row, 2, 5), direction);
+         parallel.setIntent(parallel.create(col, row, 2, 5), direction);
+      }
+
+      ForkJoinPool pool = new ForkJoinPool(2);
+      try {
+         MovementSystem sequentialMovement = new MovementSystem(collisionChecker, null);
+         MovementSystem parallelMovement = new MovementSystem(collisionChecker, pool);
+         for (int tick = 0; tick < 100; tick++) {
+            sequentialMovement.update(sequential);
+            parallelMovement.update(parallel);
+         }
+      }
+      finally {
+         pool.shutdown();
+      }
+
+      for (int i = 0; i < count; i++) {
+         int id = sequential.idAt(i);
+         assertEquals(sequential.getCol(id), parallel.getCol(id));
+         assertEquals(sequential.getRow(id), parallel.getRow(id));
+         assertEquals(sequential.getShiftX(id), parallel.getShiftX(id));
+         assertEquals(sequential.getShiftY(id), parallel.getShiftY(id));
+      }
+   }
+
+}
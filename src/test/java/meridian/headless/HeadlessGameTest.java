@@ -0,0 +1,76 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import meridian.entity.Player;
+import meridian.main.GameParam;
+import meridian.main.InputScript;
+import meridian.main.InputState;
+import meridian.main.ScriptedInput;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.ShadeMatrix;
+import meridian.tile.TileManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+class HeadlessGameTest {
+
+   // Walks around: every direction (and the diagonals) for 40 ticks, with pauses.
+   private static final InputScript WALK = tick -> {
+      int[] steps = {InputState.RIGHT, InputState.DOWN, 0, InputState.LEFT | InputState.UP, InputState.RIGHT | InputState.DOWN,
+            InputState.UP, 0, InputState.LEFT};
+      return steps[(int) (tick / 40 % steps.length)];
+   };
+
+   @Test
+   void headlessPlayerMovesLikeTheDrawnOne() {
+      HeadlessGame game = new HeadlessGame();
+      game.loadMap(1, 4, 3);
+      assertNull(game.getPlayer().getImages());
+
+      // The same map and controls with the player of the screen.
+      ShadeMatrix shadeMatrix = ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW);
+      MapManager mapManager = new MapManager(new TileManager(), shadeMatrix);
+      mapManager.loadMapById(1);
+      ScriptedInput input = new ScriptedInput();
+      Player drawnPlayer = new Player(input, new CollisionChecker(mapManager));
+      drawnPlayer.setWorldCol(4);
+      drawnPlayer.setWorldRow(3);
+
+      Player player = game.getPlayer();
+      for (int tick = 0; tick < 1000; tick++) {
+         input.setButtons(WALK.buttonsAt(tick));
+         drawnPlayer.update();
+         game.run(1, WALK);
+
+         String state = "tick " + tick;
+         assertEquals(drawnPlayer.getWorldCol(), player.getWorldCol(), state);
+         assertEquals(drawnPlayer.getWorldRow(), player.getWorldRow(), state);
+         assertEquals(drawnPlayer.getShiftX(), player.getShiftX(), state);
+         assertEquals(drawnPlayer.getShiftY(), player.getShiftY(), state);
+         assertEquals(drawnPlayer.getDirection(), player.getDirection(), state);
+         assertEquals(drawnPlayer.getAnimationPhaseIndex(), player.getAnimationPhaseIndex(), state);
+      }
+      assertEquals(1000, game.getTicks());
+   }
+
+   @Test
+   void visibilityFollowsThePlayer() {
+      HeadlessGame game = new HeadlessGame();
+      game.loadMap(1, 4, 3);
+      assertEquals(1.0f, game.getMapManager().getGrid().getVisibleOpacity(4, 3));
+
+      game.run(200, tick -> InputState.RIGHT);
+      int col = game.getPlayer().getWorldCol();
+      assertNotEquals(4, col);
+      assertEquals(1.0f, game.getMapManager().getGrid().getVisibleOpacity(col, 3));
+   }
+
+}
@@ -0,0 +1,48 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.headless;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SimulationRunnerTest {
+
+   @Test
+   void parallelSessionsMatchTheSequentialOnes() {
+      SimulationData data = new SimulationData();
+      List<SimulationSession> sessions = SimulationRunner.sessionsOf(data.getMaps(), 12, 3000);
+
+      SimulationReport report;
+      try (SimulationRunner runner = new SimulationRunner(data, 4)) {
+         report = runner.run(sessions);
+
+         for (int i = 0; i < sessions.size(); i++) {
+            SessionResult sequential = runner.runSession(sessions.get(i));
+            SessionResult parallel = report.getResults().get(i);
+            assertEquals(sequential.getMapId(), parallel.getMapId());
+            assertEquals(sequential.getStartCol(), parallel.getStartCol());
+            assertEquals(sequential.getStartRow(), parallel.getStartRow());
+            assertEquals(sequential.getEndCol(), parallel.getEndCol(), "session " + i);
+            assertEquals(sequential.getEndRow(), parallel.getEndRow(), "session " + i);
+            assertEquals(sequential.getVisitedCells(), parallel.getVisitedCells(), "session " + i);
+            assertEquals(sequential.getBlockedTicks(), parallel.getBlockedTicks(), "session " + i);
+         }
+      }
+
+      assertEquals(12 * 3000, report.getTicks());
+      assertEquals(data.getMaps().size(), report.getMapStatistics().size());
+      report.getMapStatistics().values().forEach(statistics -> assertTrue(statistics.getMaxVisitedCells() > 1));
+
+      // The read only data is loaded once.
+      assertSame(data.getSource(data.getMap(1)), data.getSource(data.getMap(1)));
+   }
+
+}
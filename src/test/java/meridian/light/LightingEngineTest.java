@@ -0,0 +1,134 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.light;
+
+import meridian.map.ChunkSource;
+import meridian.map.FieldOfView;
+import meridian.map.MapGrid;
+import meridian.map.ShadeMatrix;
+import meridian.map.TestMaps;
+import meridian.tile.TileManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+class LightingEngineTest {
+
+   private static final int WALL_COL = 12;
+
+   private TileManager tileManager;
+   private MapGrid grid;
+   private LightingEngine engine;
+
+   @BeforeEach
+   void createMap() {
+      tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+
+      // Floor with a full height wall.
+      grid = new MapGrid(40, 20, tileManager, TestMaps.source((col, row) -> col == WALL_COL));
+      engine = new LightingEngine(new ShadeMatrix());
+   }
+
+   @Test
+   void sourceLightIsVisibleOnlyInSight() {
+      engine.update(grid, 5, 10, 1);
+      assertEquals(0.0f, grid.getVisibleOpacity(10, 10));
+
+      // Torch in sight and torch behind the wall.
+      engine.addLight(new LightSource(10, 10, 1));
+      engine.addLight(new LightSource(14, 10, 1));
+      engine.update(grid, 5, 10, 1);
+
+      assertEquals(1.0f, grid.getVisibleOpacity(10, 10));
+      assertEquals(0.0f, grid.getVisibleOpacity(14, 10));
+
+      // Own light of the viewer is not changed.
+      assertEquals(1.0f, grid.getVisibleOpacity(5, 10));
+   }
+
+   @Test
+   void unchangedStateIsNotRecalculated() {
+      LightSource torch = new LightSource(10, 10, 1);
+      engine.addLight(torch);
+
+      engine.update(grid, 5, 10, 1);
+      engine.update(grid, 5, 10, 1);
+      assertEquals(1, engine.getCalculations());
+
+      torch.setCol(11);
+      engine.update(grid, 5, 10, 1);
+      assertEquals(2, engine.getCalculations());
+      assertEquals(1.0f, grid.getVisibleOpacity(11, 10));
+   }
+
+   @Test
+   void parallelResultIsSameAsSequential() {
+      MapGrid sequentialGrid = createPillarMap();
+      MapGrid parallelGrid = createPillarMap();
+      LightingEngine sequential = new LightingEngine(new ShadeMatrix());
+      LightingEngine parallel = new LightingEngine(new ShadeMatrix(), new ForkJoinPool(4));
+
+      for (int i = 0; i < 24; i++) {
+         int col = 8 + (i * 7) % 30;
+         int row = 6 + (i * 5) % 18;
+         sequential.addLight(new LightSource(col, row, i % 3));
+         parallel.addLight(new LightSource(col, row, i % 3));
+      }
+
+      sequential.update(sequentialGrid, 22, 15, 1);
+      parallel.update(parallelGrid, 22, 15, 1);
+
+      for (int row = 0; row < sequentialGrid.getHeight(); row++) {
+         for (int col = 0; col < sequentialGrid.getWidth(); col++) {
+            assertEquals(Float.floatToRawIntBits(sequentialGrid.getVisibleOpacity(col, row)),
+                  Float.floatToRawIntBits(parallelGrid.getVisibleOpacity(col, row)), "cell " + col + "," + row);
+         }
+      }
+      parallel.getPool().shutdown();
+   }
+
+   @Test
+   void workersDoNotPageInTheChunksNextToTheLights() {
+      Thread caller = Thread.currentThread();
+      AtomicInteger workerReads = new AtomicInteger();
+      ChunkSource floor = TestMaps.source((col, row) -> false);
+      ChunkSource source = (startCol, startRow, cols, rows, target, targetStride) -> {
+         if (Thread.currentThread() != caller) {
+            workerReads.incrementAndGet();
+         }
+         floor.readTileIds(startCol, startRow, cols, rows, target, targetStride);
+      };
+
+      // Three chunks under each other, two of them resident - the middle one is evicted.
+      MapGrid tallGrid = new MapGrid(32, 96, tileManager, source, 2);
+      tallGrid.getTransparency(0, 40);
+      tallGrid.getTransparency(0, 70);
+      tallGrid.getTransparency(0, 0);
+      assertFalse(tallGrid.isResident(0, 40, 0, 0));
+
+      // The lit area ends on the last row of the first chunk, the shadows read the next row.
+      LightingEngine parallel = new LightingEngine(new ShadeMatrix(), new ForkJoinPool(4));
+      parallel.setFieldOfView(FieldOfView.SHADOWCASTING);
+      parallel.addLight(new LightSource(5, 28, 0));
+      parallel.addLight(new LightSource(20, 28, 0));
+      parallel.update(tallGrid, 16, 20, 1);
+
+      assertEquals(0, workerReads.get());
+      parallel.getPool().shutdown();
+   }
+
+   // Floor with a pillar in every fourth cell - more chunks and a lot of shadows.
+   private MapGrid createPillarMap() {
+      return new MapGrid(48, 36, tileManager, TestMaps.source((col, row) -> col % 4 == 2 && row % 4 == 2));
+   }
+
+}
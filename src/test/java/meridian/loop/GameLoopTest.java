@@ -0,0 +1,123 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.loop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class GameLoopTest {
+
+   private static final long TICK = 16_666_667;
+   private static final long FRAME = 16_666_667;
+
+   // Simulated time - the pacer moves it to the deadline plus the frame's jitter.
+   private long now;
+
+   @Test
+   void simulationDoesNotDependOnFrameJitter() {
+      List<Double> steady = runFor(FRAME, 0, 600);
+      List<Double> jittery = runFor(FRAME, 12_000_000, 600);
+      List<Double> slow = runFor(3 * FRAME, 30_000_000, 600);
+
+      // The same time span is the same number of ticks...
+      assertEquals(600, steady.size());
+      assertEquals(600, jittery.size());
+      assertEquals(600, slow.size());
+
+      // ...and the state after every tick is the same.
+      assertEquals(steady, jittery);
+      assertEquals(steady, slow);
+   }
+
+   @Test
+   void longFrameCatchesUpLimitedTicks() {
+      now = 0;
+      List<Integer> ticksOfFrames = new ArrayList<>();
+      int[] tickCounter = new int[1];
+      GameLoop[] loop = new GameLoop[1];
+
+      FramePacer pacer = deadline -> {
+         ticksOfFrames.add(tickCounter[0]);
+         tickCounter[0] = 0;
+         // The third frame takes half a second.
+         now = ticksOfFrames.size() == 3 ? now + 500_000_000 : Math.max(now, deadline);
+         if (ticksOfFrames.size() == 6) {
+            loop[0].stop();
+         }
+      };
+      loop[0] = new GameLoop(() -> tickCounter[0]++, alpha -> { }, pacer, TICK, FRAME, 5, () -> now);
+      loop[0].run();
+
+      assertEquals(5, (int) ticksOfFrames.get(3));
+      assertTrue(loop[0].getSkippedTicks() > 20);
+      assertEquals(1, (int) ticksOfFrames.get(4));
+   }
+
+   // Runs the loop for the time of the given ticks - returns the heights of a bouncing ball after the ticks.
+   private List<Double> runFor(long frame, long maxJitter, int ticks) {
+      now = 0;
+      long end = ticks * TICK;
+      Random random = new Random(42);
+      List<Double> states = new ArrayList<>();
+      Ball ball = new Ball();
+      GameLoop[] loop = new GameLoop[1];
+
+      GameLoop.Simulation simulation = () -> {
+         ball.step(loop[0].getTickInterval() / 1e9);
+         states.add(ball.height);
+      };
+
+      // The drawn height is between the last two ticks.
+      GameLoop.Renderer renderer = alpha -> {
+         assertTrue(alpha >= 0.0f && alpha < 1.0f);
+         double drawn = ball.previousHeight + (ball.height - ball.previousHeight) * alpha;
+         assertTrue(drawn >= Math.min(ball.previousHeight, ball.height) && drawn <= Math.max(ball.previousHeight, ball.height));
+      };
+
+      // The last frame starts at the end of the span.
+      FramePacer pacer = deadline -> {
+         if (now == end) {
+            loop[0].stop();
+         }
+         now = Math.min(end, Math.max(now, deadline) + (maxJitter > 0 ? (long) (random.nextDouble() * maxJitter) : 0));
+      };
+
+      loop[0] = new GameLoop(simulation, renderer, pacer, TICK, frame, 5, () -> now);
+      loop[0].run();
+
+      assertEquals(states.size(), loop[0].getTicks());
+      assertEquals(0, loop[0].getSkippedTicks());
+      return states;
+   }
+
+   // Falling ball bouncing on the floor - moved by the length of the tick.
+   private static final class Ball {
+
+      private static final double GRAVITY = -9.81;
+
+      private double height = 10.0;
+      private double previousHeight = 10.0;
+      private double velocity;
+
+      void step(double seconds) {
+         this.previousHeight = this.height;
+         this.velocity += GRAVITY * seconds;
+         this.height += this.velocity * seconds;
+         if (this.height < 0.0) {
+            this.height = -this.height;
+            this.velocity = -this.velocity * 0.8;
+         }
+      }
+
+   }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class InputEventQueueTest {
+
+   // Waiting of the threads on a full or empty queue (the tests can run on a single core).
+   private static final long WAIT_NANOS = 10_000;
+
+   @Test
+   void shortTapIsLatchedForOneTick() {
+      InputEventQueue queue = new InputEventQueue(8);
+      InputSnapshot snapshot = new InputSnapshot();
+
+      // Tap of 'left' and pressing 'up' between two ticks.
+      queue.offer(100, InputState.LEFT, true);
+      queue.offer(200, InputState.UP, true);
+      queue.offer(300, InputState.LEFT, false);
+
+      snapshot.beginTick();
+      assertEquals(3, queue.drainTo(snapshot));
+      assertEquals(InputState.LEFT | InputState.UP, snapshot.getButtons());
+      assertEquals(InputState.UP, snapshot.getHeld());
+      assertEquals(300, snapshot.getLastEventTime());
+
+      snapshot.beginTick();
+      assertEquals(0, queue.drainTo(snapshot));
+      assertEquals(InputState.UP, snapshot.getButtons());
+   }
+
+   @Test
+   void fullQueueRejectsEvents() {
+      InputEventQueue queue = new InputEventQueue(3);
+      for (int i = 0; i < 4; i++) {
+         assertTrue(queue.offer(i, InputState.DOWN, i % 2 == 0));
+      }
+      assertFalse(queue.offer(4, InputState.DOWN, true));
+
+      queue.drainTo(new InputSnapshot());
+      assertTrue(queue.offer(5, InputState.DOWN, true));
+   }
+
+   @Test
+   void eventsKeepTheirOrderBetweenThreads() throws InterruptedException {
+      InputEventQueue queue = new InputEventQueue(1024);
+      int count = 200_000;
+
+      // Alternating press and release of the buttons - the time is the number of the event.
+      Thread producer = new Thread(() -> {
+         for (int i = 0; i < count; i++) {
+            while (!queue.offer(i, 1 << (i / 2 % 4), i % 2 == 0)) {
+               LockSupport.parkNanos(WAIT_NANOS);
+            }
+         }
+      });
+      producer.start();
+
+      int[] expected = {0};
+      InputSnapshot snapshot = new InputSnapshot() {
+         @Override
+         public void apply(long time, int button, boolean down) {
+            int i = expected[0]++;
+            assertEquals(i, time);
+            assertEquals(1 << (i / 2 % 4), button);
+            assertEquals(i % 2 == 0, down);
+            super.apply(time, button, down);
+         }
+      };
+      while (expected[0] < count) {
+         if (queue.drainTo(snapshot) == 0) {
+            LockSupport.parkNanos(WAIT_NANOS);
+         }
+      }
+      producer.join();
+
+      assertEquals(0, snapshot.getHeld());
+   }
+
+}
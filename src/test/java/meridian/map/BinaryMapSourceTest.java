@@ -0,0 +1,43 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class BinaryMapSourceTest {
+
+   @Test
+   void convertedMapHasSameTileIds(@TempDir Path tempDir) throws URISyntaxException {
+      Path textMap = Path.of(getClass().getResource("/maps/test_map2.map").toURI());
+      Path binaryMap = tempDir.resolve("test_map2" + BinaryMapFormat.FILE_EXTENSION);
+
+      int[] size = MapConverter.measureTextMap(textMap);
+      assertEquals(38, size[0]);
+      assertEquals(30, size[1]);
+
+      MapConverter.convert(textMap, binaryMap, size[0], size[1]);
+
+      TextMapSource textSource = new TextMapSource("/maps/test_map2", 38, 30);
+      BinaryMapSource binarySource = new BinaryMapSource(binaryMap);
+      assertEquals(38, binarySource.getWidth());
+      assertEquals(30, binarySource.getHeight());
+
+      // Read an inner region of both sources.
+      short[] expected = new short[10 * 12];
+      short[] actual = new short[10 * 12];
+      textSource.readTileIds(20, 5, 10, 12, expected, 10);
+      binarySource.readTileIds(20, 5, 10, 12, actual, 10);
+      assertArrayEquals(expected, actual);
+   }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.entity.Direction;
+import meridian.entity.Entity;
+import meridian.main.GameParam;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class CollisionCheckerTest {
+
+   // Not multiple of the chunk and the bitset word sizes.
+   private static final int WIDTH = 150;
+   private static final int HEIGHT = 97;
+
+   @Test
+   void batchIsTheSameAsTheSingleChecks() {
+      MapManager mapManager = TestMaps.randomWalls(WIDTH, HEIGHT, 7, 33);
+      CollisionChecker checker = new CollisionChecker(mapManager);
+
+      // Entities anywhere on the map (on the edges as well) with any shift and direction.
+      Random random = new Random(11);
+      int count = 20_000;
+      int[] cols = new int[count];
+      int[] rows = new int[count];
+      int[] shiftXs = new int[count];
+      int[] shiftYs = new int[count];
+      byte[] directions = new byte[count];
+      for (int i = 0; i < count; i++) {
+         cols[i] = random.nextInt(WIDTH);
+         rows[i] = random.nextInt(HEIGHT);
+         shiftXs[i] = edgeShift(random, cols[i], WIDTH);
+         shiftYs[i] = edgeShift(random, rows[i], HEIGHT);
+         directions[i] = (byte) random.nextInt(4);
+      }
+
+      assertSameResults(checker, cols, rows, shiftXs, shiftYs, directions);
+
+      // A changed tile is seen by the next batch - its bit is changed, the bitset is not built again.
+      SolidityMap solidity = checker.currentSolidity();
+      int col = cols[0];
+      int row = rows[0];
+      boolean solid = mapManager.getGrid().isSolid(col, row);
+      mapManager.getGrid().setCell(col, row, solid ? TestMaps.FLOOR_ID : TestMaps.WALL_ID, !solid, 1.0f);
+      assertSame(solidity, checker.currentSolidity());
+      assertEquals(!solid, solidity.isSolid(col, row));
+      assertEquals(mapManager.getGrid().getVersion(), solidity.getVersion());
+      assertSameResults(checker, cols, rows, shiftXs, shiftYs, directions);
+
+      boolean[] allowed = new boolean[1];
+      checker.canMove(0, 1, cols, rows, shiftXs, shiftYs, new byte[] {-1}, allowed);
+      assertFalse(allowed[0]);
+   }
+
+   // Shift inside the half tile - not towards the outside of the map on its edges.
+   private static int edgeShift(Random random, int cell, int size) {
+      int shift = random.nextInt(GameParam.TILE_SIZE) - GameParam.TILE_SIZE / 2 + 1;
+      if (cell == 0) {
+         return Math.min(0, shift);
+      }
+      if (cell == size - 1) {
+         return Math.max(0, shift);
+      }
+      return shift;
+   }
+
+   private static void assertSameResults(CollisionChecker checker, int[] cols, int[] rows, int[] shiftXs, int[] shiftYs,
+                                         byte[] directions) {
+      int count = cols.length;
+      boolean[] allowed = new boolean[count];
+      checker.canMove(0, count, cols, rows, shiftXs, shiftYs, directions, allowed);
+
+      Entity entity = new Entity();
+      int free = 0;
+      for (int i = 0; i < count; i++) {
+         entity.setWorldCol(cols[i]);
+         entity.setWorldRow(rows[i]);
+         entity.setShiftX(shiftXs[i]);
+         entity.setShiftY(shiftYs[i]);
+         boolean expected = checker.canMove(entity, Direction.values()[directions[i]]);
+         assertEquals(expected, allowed[i], "entity " + i);
+         free += expected ? 1 : 0;
+      }
+      assertTrue(free > 0 && free < count);
+   }
+
+}
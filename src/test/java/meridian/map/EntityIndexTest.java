@@ -0,0 +1,108 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.entity.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class EntityIndexTest {
+
+   private static Entity entityAt(int col, int row) {
+      Entity entity = new Entity();
+      entity.setWorldCol(col);
+      entity.setWorldRow(row);
+      return entity;
+   }
+
+   @Test
+   void entitiesFollowTheirCells() {
+      EntityIndex index = new EntityIndex(10, 8, 1);
+      Entity first = entityAt(3, 4);
+      Entity second = entityAt(3, 4);
+      int firstSlot = index.add(first);
+      int secondSlot = index.add(second);
+
+      // Both of them are on the cell (the last added is the first).
+      assertEquals(secondSlot, index.firstAt(3, 4));
+      assertEquals(firstSlot, index.nextInCell(secondSlot));
+      assertEquals(EntityIndex.NONE, index.nextInCell(firstSlot));
+
+      second.setWorldCol(4);
+      index.update(secondSlot);
+      assertEquals(firstSlot, index.firstAt(3, 4));
+      assertEquals(EntityIndex.NONE, index.nextInCell(firstSlot));
+      assertSame(second, index.get(index.firstAt(4, 4)));
+
+      index.remove(firstSlot);
+      assertFalse(index.isOccupied(3, 4));
+      assertEquals(1, index.getSize());
+
+      // The removed slot is reused.
+      assertEquals(firstSlot, index.add(entityAt(9, 7)));
+      assertTrue(index.isOccupied(9, 7));
+   }
+
+   @Test
+   void queriesFindTheEntitiesOfTheArea() {
+      int width = 64;
+      int height = 48;
+      EntityIndex index = new EntityIndex(width, height);
+      Random random = new Random(7);
+
+      Entity[] entities = new Entity[2000];
+      int[] slots = new int[entities.length];
+      for (int i = 0; i < entities.length; i++) {
+         entities[i] = entityAt(random.nextInt(width), random.nextInt(height));
+         slots[i] = index.add(entities[i]);
+      }
+      // Some of them move, some of them are removed.
+      for (int i = 0; i < entities.length; i += 3) {
+         entities[i].setWorldCol(random.nextInt(width));
+         entities[i].setWorldRow(random.nextInt(height));
+         index.update(slots[i]);
+      }
+      for (int i = 1; i < entities.length; i += 5) {
+         index.remove(slots[i]);
+         entities[i] = null;
+      }
+
+      Set<Entity> found = new HashSet<>();
+      index.forEachIn(10, 5, 30, 20, (slot, entity) -> found.add(entity));
+      Set<Entity> expected = new HashSet<>();
+      for (Entity entity : entities) {
+         if (entity != null && entity.getWorldCol() >= 10 && entity.getWorldCol() <= 30 &&
+               entity.getWorldRow() >= 5 && entity.getWorldRow() <= 20) {
+            expected.add(entity);
+         }
+      }
+      assertEquals(expected, found);
+
+      // Small radius by the cells, large radius by the entities.
+      for (int radius : new int[] {3, 40}) {
+         found.clear();
+         expected.clear();
+         index.forEachWithin(20, 30, radius, (slot, entity) -> found.add(entity));
+         for (Entity entity : entities) {
+            int dx = entity == null ? 0 : entity.getWorldCol() - 20;
+            int dy = entity == null ? 0 : entity.getWorldRow() - 30;
+            if (entity != null && dx * dx + dy * dy <= radius * radius) {
+               expected.add(entity);
+            }
+         }
+         assertEquals(expected, found, "radius " + radius);
+      }
+   }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.tile.TileManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class MapGridTest {
+
+   private static TileManager tileManager;
+
+   @BeforeAll
+   static void loadTiles() {
+      tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+   }
+
+   // Walls on every third column, floor anywhere else.
+   private static ChunkSource stripedSource() {
+      return TestMaps.source((col, row) -> col % 3 == 0);
+   }
+
+   @Test
+   void chunksArePagedAndEvicted() {
+      MapGrid grid = new MapGrid(200, 150, tileManager, stripedSource(), 4);
+
+      for (int row = 0; row < grid.getHeight(); row++) {
+         for (int col = 0; col < grid.getWidth(); col++) {
+            int expectedId = col % 3 == 0 ? TestMaps.WALL_ID : TestMaps.FLOOR_ID;
+            assertEquals(expectedId, grid.getTileId(col, row));
+            assertEquals(expectedId == TestMaps.WALL_ID, grid.isSolid(col, row));
+            assertTrue(grid.getResidentChunks() <= 4);
+         }
+      }
+
+   }
+
+   @Test
+   void readChunkIsNotEvictedFirst() {
+      MapGrid grid = new MapGrid(200, 150, tileManager, stripedSource(), 2);
+      grid.getTileId(0, 0);
+      grid.getTileId(40, 0);
+
+      // The first chunk is read again, so the second one is the least recently used.
+      grid.getTileId(1, 1);
+      grid.getTileId(80, 0);
+
+      assertTrue(grid.isResident(0, 0, 0, 0));
+      assertFalse(grid.isResident(40, 0, 0, 0));
+      assertTrue(grid.isResident(80, 0, 0, 0));
+   }
+
+   @Test
+   void modifiedChunkStaysResident() {
+      MapGrid grid = new MapGrid(200, 150, tileManager, stripedSource(), 2);
+      grid.setCell(1, 1, TestMaps.WALL_ID, true, 1.0f);
+
+      // Visiting the whole map would evict the chunk if it was not modified.
+      for (int row = 0; row < grid.getHeight(); row += 8) {
+         for (int col = 0; col < grid.getWidth(); col += 8) {
+            grid.getTileId(col, row);
+         }
+      }
+
+      assertEquals(TestMaps.WALL_ID, grid.getTileId(1, 1));
+      assertTrue(grid.isSolid(1, 1));
+   }
+
+}
@@ -5,9 +5,18 @@
 package meridian.map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class ShadeMatrixTest {
 
@@ -44,4 +53,85 @@ class ShadeMatrixTest {
       assertEquals(344, preCalculatedData.size());
    }
 
-}
\ No newline at end of file
+   @Test
+   void generatedTableIsSameAsScreenTable() {
+      // The hard-coded table of the 19x15 screen: 9 rings truncated by the screen height.
+      int[][] screenCoords = {
+            {1, 0}, {1, 1},
+            {2, 0}, {2, 1}, {2, 2},
+            {3, 0}, {3, 1}, {3, 2}, {3, 3},
+            {4, 0}, {4, 1}, {4, 2}, {4, 3}, {4, 4},
+            {5, 0}, {5, 1}, {5, 2}, {5, 3}, {5, 4}, {5, 5},
+            {6, 0}, {6, 1}, {6, 2}, {6, 3}, {6, 4}, {6, 5}, {6, 6},
+            {7, 0}, {7, 1}, {7, 2}, {7, 3}, {7, 4}, {7, 5}, {7, 6}, {7, 7},
+            {8, 0}, {8, 1}, {8, 2}, {8, 3}, {8, 4}, {8, 5}, {8, 6}, {8, 7},
+            {9, 0}, {9, 1}, {9, 2}, {9, 3}, {9, 4}, {9, 5}, {9, 6}, {9, 7},
+      };
+      assertArrayEquals(screenCoords, ShadeMatrix.generateCoords(10, 8));
+
+      ShadeTable expected = new ShadeMatrix(screenCoords).getTable();
+      ShadeTable generated = ShadeMatrix.forScreen(19, 15).getTable();
+      assertArrayEquals(expected.darkenerStart, generated.darkenerStart);
+      assertArrayEquals(expected.darkenerX, generated.darkenerX);
+      assertArrayEquals(expected.darkenerY, generated.darkenerY);
+      assertArrayEquals(expected.darkenerValue, generated.darkenerValue);
+
+      // Shared by the reach.
+      assertSame(ShadeMatrix.forReach(4, 4), ShadeMatrix.forReach(4, 4));
+   }
+
+   @Test
+   void readRangeCoversEveryViewPosition() {
+      ShadeMatrix matrix = ShadeMatrix.forScreen(19, 15);
+      int maxX = 0;
+      int maxY = 0;
+      for (ViewPosition vp : matrix.getViewPositions()) {
+         maxX = Math.max(maxX, Math.abs(vp.getX()));
+         maxY = Math.max(maxY, Math.abs(vp.getY()));
+      }
+
+      assertEquals(maxX, matrix.getReadCols());
+      assertEquals(maxY, matrix.getReadRows());
+      // The mirrored positions read past the reach rows.
+      assertEquals(9, matrix.getReadCols());
+      assertEquals(9, matrix.getReadRows());
+   }
+
+   @Test
+   void cachedTableIsSameAsCalculated(@TempDir Path cacheDirectory) {
+      int[][] coords = { {1, 0}, {2, 1}, {3, 3}, {7, 2} };
+      ShadeTable calculated = new ShadeMatrix(coords, cacheDirectory).getTable();
+      ShadeTable cached = new ShadeMatrix(coords, cacheDirectory).getTable();
+
+      assertEquals(calculated.getPositionCount(), cached.getPositionCount());
+      assertArrayEquals(calculated.positionX, cached.positionX);
+      assertArrayEquals(calculated.positionY, cached.positionY);
+      assertArrayEquals(calculated.darkenerStart, cached.darkenerStart);
+      assertArrayEquals(calculated.darkenerX, cached.darkenerX);
+      assertArrayEquals(calculated.darkenerY, cached.darkenerY);
+      assertArrayEquals(calculated.darkenerValue, cached.darkenerValue);
+
+      // Other coords are not loaded from the cache of these.
+      assertEquals(4, new ShadeMatrix(new int[][] { {1, 0} }, cacheDirectory).getTable().getPositionCount());
+   }
+
+   @Test
+   void cacheFileOfOtherParametersIsNotLoaded(@TempDir Path cacheDirectory) throws IOException {
+      int[][] coords = { {1, 0} };
+      new ShadeMatrix(coords, cacheDirectory);
+      Path file;
+      try (Stream<Path> files = Files.list(cacheDirectory)) {
+         file = files.findFirst().orElseThrow();
+      }
+
+      // The file name of these coords with the table of other coords.
+      Path otherDirectory = Files.createDirectory(cacheDirectory.resolve("other"));
+      new ShadeMatrix(new int[][] { {1, 0}, {2, 1}, {3, 3} }, otherDirectory);
+      try (Stream<Path> files = Files.list(otherDirectory)) {
+         Files.copy(files.findFirst().orElseThrow(), file, StandardCopyOption.REPLACE_EXISTING);
+      }
+
+      assertEquals(4, new ShadeMatrix(coords, cacheDirectory).getTable().getPositionCount());
+   }
+
+}
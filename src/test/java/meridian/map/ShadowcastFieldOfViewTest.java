@@ -0,0 +1,76 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.light.LightBuffer;
+import meridian.tile.TileManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class ShadowcastFieldOfViewTest {
+
+   private static final int REACH = 8;
+
+   private TileManager tileManager;
+
+   @BeforeEach
+   void loadTiles() {
+      tileManager = new TileManager();
+      tileManager.loadTiles("dungeon_basic_set_01");
+   }
+
+   @Test
+   void wallCoversTheCellsBehindIt() {
+      MapGrid grid = createMap((col, row) -> col == 12 && row == 10);
+
+      LightBuffer buffer = see(grid, 10, 10);
+      assertEquals(1.0f, buffer.get(12, 10));   // the wall
+      assertEquals(0.0f, buffer.get(13, 10));
+      assertEquals(0.0f, buffer.get(16, 10));
+      assertEquals(1.0f, buffer.get(16, 13));
+      assertEquals(1.0f, buffer.get(10, 2));
+   }
+
+   @Test
+   void visibilityIsSymmetric() {
+      MapGrid grid = createMap((col, row) -> (col * 7 + row * 13) % 9 == 0);
+
+      for (int viewerRow = 8; viewerRow < 16; viewerRow++) {
+         for (int viewerCol = 8; viewerCol < 16; viewerCol++) {
+            if (grid.getTransparency(viewerCol, viewerRow) > 0.0f) {
+               continue;
+            }
+            LightBuffer fromViewer = see(grid, viewerCol, viewerRow);
+
+            for (int row = viewerRow - REACH; row <= viewerRow + REACH; row++) {
+               for (int col = viewerCol - REACH; col <= viewerCol + REACH; col++) {
+                  if (grid.getTransparency(col, row) > 0.0f) {
+                     continue;
+                  }
+                  float back = see(grid, col, row).get(viewerCol, viewerRow);
+                  assertEquals(fromViewer.get(col, row), back, viewerCol + "," + viewerRow + " <-> " + col + "," + row);
+               }
+            }
+         }
+      }
+
+   }
+
+   private LightBuffer see(MapGrid grid, int col, int row) {
+      LightBuffer buffer = new LightBuffer(REACH * 2 + 1, REACH * 2 + 1);
+      buffer.moveTo(col - REACH, row - REACH);
+      buffer.fill(1.0f);
+      ShadowcastFieldOfView.forReach(REACH, REACH).updateMapCellsVisibility(grid, col, row, buffer);
+      return buffer;
+   }
+
+   private MapGrid createMap(TestMaps.Walls walls) {
+      return new MapGrid(32, 32, tileManager, TestMaps.source(walls));
+   }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.map;
+
+import meridian.main.GameParam;
+import meridian.tile.TileManager;
+
+import java.util.Random;
+
+
+/**
+ * Maps of the tests: floor and walls of the basic tile set (tiles without graphics), the
+ * walls are given by a function of the cells or scattered by a seed.
+ */
+public final class TestMaps {
+
+   public static final short WALL_ID = 0;
+   public static final short FLOOR_ID = 22;
+
+   // Wall cells of a map.
+   public interface Walls {
+      boolean isWall(int col, int row);
+   }
+
+
+   private TestMaps() {
+
+   }
+
+
+   // Map manager with the loaded map of the walls.
+   public static MapManager load(int width, int height, Walls walls) {
+      TileManager tileManager = TileManager.withoutGraphics();
+      tileManager.loadTiles("dungeon_basic_set_01");
+      MapManager mapManager = new MapManager(tileManager, ShadeMatrix.forScreen(GameParam.MAX_SCREEN_COL, GameParam.MAX_SCREEN_ROW));
+      mapManager.loadGrid(source(walls), width, height);
+      return mapManager;
+   }
+
+   /**
+    * Scattered walls - the center cell is always free (the place of a target).
+    *
+    * @param width columns of the map.
+    * @param height rows of the map.
+    * @param seed seed of the walls.
+    * @param wallDensity percent of the walls.
+    * @return map manager with the loaded map.
+    */
+   public static MapManager randomWalls(int width, int height, long seed, int wallDensity) {
+      Random random = new Random(seed);
+      boolean[] walls = new boolean[width * height];
+      for (int i = 0; i < walls.length; i++) {
+         walls[i] = random.nextInt(100) < wallDensity;
+      }
+      walls[height / 2 * width + width / 2] = false;
+      return load(width, height, (col, row) -> walls[row * width + col]);
+   }
+
+   public static ChunkSource source(Walls walls) {
+      return (startCol, startRow, cols, rows, target, targetStride) -> {
+         for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+               target[row * targetStride + col] = walls.isWall(startCol + col, startRow + row) ? WALL_ID : FLOOR_ID;
+            }
+         }
+      };
+   }
+
+}
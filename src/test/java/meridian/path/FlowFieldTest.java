@@ -0,0 +1,123 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import meridian.entity.ChaseSystem;
+import meridian.entity.Direction;
+import meridian.entity.EntityStore;
+import meridian.entity.MovementSystem;
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.SolidityMap;
+import meridian.map.TestMaps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class FlowFieldTest {
+
+   private static final int WIDTH = 80;
+   private static final int HEIGHT = 60;
+
+   private MapManager mapManager;
+   private CollisionChecker collisionChecker;
+
+   // Scattered walls (about every 5th cell).
+   @BeforeEach
+   void loadMap() {
+      mapManager = TestMaps.randomWalls(WIDTH, HEIGHT, 2, 20);
+      collisionChecker = new CollisionChecker(mapManager);
+   }
+
+   @Test
+   void distancesAreTheShortestStepsInTheRange() {
+      SolidityMap solidity = collisionChecker.currentSolidity();
+      PathFinder pathFinder = new PathFinder(collisionChecker, 0);
+      FlowField field = new FlowField(20);
+      int targetCol = WIDTH / 2;
+      int targetRow = HEIGHT / 2;
+
+      // The second flood is one cell away (as the player steps).
+      for (int move = 0; move < 2; move++) {
+         field.flood(solidity, targetCol, targetRow);
+         for (int row = 0; row < HEIGHT; row++) {
+            for (int col = 0; col < WIDTH; col++) {
+               GridPath path = pathFinder.findPath(col, row, targetCol, targetRow, PathFinder.Algorithm.A_STAR);
+               int expected = path != null && path.getSteps() <= 20 ? path.getSteps() : FlowField.UNREACHABLE;
+               assertEquals(expected, field.getDistance(col, row), col + "," + row);
+
+               // The next step is one step closer.
+               Direction step = field.nextStep(col, row);
+               if (expected == 0 || expected == FlowField.UNREACHABLE) {
+                  assertNull(step);
+               }
+               else {
+                  int nextCol = col + (step == Direction.RIGHT ? 1 : step == Direction.LEFT ? -1 : 0);
+                  int nextRow = row + (step == Direction.DOWN ? 1 : step == Direction.UP ? -1 : 0);
+                  assertEquals(expected - 1, field.getDistance(nextCol, nextRow));
+               }
+            }
+         }
+         targetCol = solidity.isSolid(targetCol + 1, targetRow) ? targetCol - 1 : targetCol + 1;
+      }
+
+      // A changed tile of the map is flooded again.
+      assertTrue(field.isFloodedFrom(solidity, field.getTargetCol(), field.getTargetRow()));
+      mapManager.getGrid().setCell(0, 0, TestMaps.WALL_ID, true, 1.0f);
+      assertFalse(field.isFloodedFrom(solidity, field.getTargetCol(), field.getTargetRow()));
+   }
+
+   @Test
+   void monstersReachThePlayerByTheBackgroundField() {
+      int playerCol = WIDTH / 2;
+      int playerRow = HEIGHT / 2;
+      EntityStore store = new EntityStore();
+      FlowField reference = new FlowField(FlowFieldUpdater.DEFAULT_MAX_DISTANCE);
+      reference.flood(collisionChecker.currentSolidity(), playerCol, playerRow);
+      for (int i = 0; i < 100; i++) {
+         int cell = (i * 7919) % (WIDTH * HEIGHT);
+         if (reference.getDistance(cell % WIDTH, cell / WIDTH) <= 30) {
+            store.create(cell % WIDTH, cell / WIDTH, 4, 5);
+         }
+      }
+      assertTrue(store.getSize() > 10);
+
+      try (FlowFieldUpdater updater = new FlowFieldUpdater(collisionChecker, true)) {
+         FlowField previous = updater.current();
+         updater.request(playerCol, playerRow);
+         while (updater.isFlooding()) {
+            LockSupport.parkNanos(100_000);
+         }
+         assertNotSame(previous, updater.current());
+         FlowField published = updater.current();
+         updater.request(playerCol, playerRow);
+         assertSame(published, updater.current());
+
+         ChaseSystem chase = new ChaseSystem();
+         MovementSystem movement = new MovementSystem(collisionChecker, null);
+         for (int tick = 0; tick < 30 * 12; tick++) {
+            updater.request(playerCol, playerRow);
+            chase.update(store, updater.current());
+            movement.update(store);
+         }
+      }
+
+      for (int i = 0; i < store.getSize(); i++) {
+         int id = store.idAt(i);
+         assertEquals(playerCol, store.getCol(id));
+         assertEquals(playerRow, store.getRow(id));
+      }
+   }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.path;
+
+import meridian.map.CollisionChecker;
+import meridian.map.MapManager;
+import meridian.map.SolidityMap;
+import meridian.map.TestMaps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+class PathFinderTest {
+
+   private static final int WIDTH = 90;
+   private static final int HEIGHT = 70;
+
+   private MapManager mapManager;
+   private CollisionChecker collisionChecker;
+
+   // Scattered walls (about every 4th cell) - some cells are closed in.
+   @BeforeEach
+   void loadMap() {
+      mapManager = TestMaps.randomWalls(WIDTH, HEIGHT, 1, 25);
+      collisionChecker = new CollisionChecker(mapManager);
+   }
+
+   @Test
+   void pathsAreShortestAndConnected() {
+      PathFinder finder = new PathFinder(collisionChecker, 0);
+      SolidityMap solidity = collisionChecker.currentSolidity();
+      Random random = new Random(5);
+
+      int reached = 0;
+      for (int i = 0; i < 300; i++) {
+         int startCol = random.nextInt(WIDTH);
+         int startRow = random.nextInt(HEIGHT);
+         int goalCol = random.nextInt(WIDTH);
+         int goalRow = random.nextInt(HEIGHT);
+         int expected = breadthFirstSteps(solidity, startCol, startRow, goalCol, goalRow);
+
+         for (PathFinder.Algorithm algorithm : PathFinder.Algorithm.values()) {
+            GridPath path = finder.findPath(startCol, startRow, goalCol, goalRow, algorithm);
+            if (expected < 0) {
+               assertNull(path, algorithm + " " + i);
+               continue;
+            }
+            assertNotNull(path, algorithm + " " + i);
+            assertEquals(expected, path.getSteps(), algorithm + " " + i);
+            assertEquals(startCol, path.getCol(0));
+            assertEquals(startRow, path.getRow(0));
+            assertEquals(goalCol, path.getCol(path.getSteps()));
+            assertEquals(goalRow, path.getRow(path.getSteps()));
+            for (int step = 1; step <= path.getSteps(); step++) {
+               assertFalse(solidity.isSolid(path.getCol(step), path.getRow(step)));
+               assertEquals(1, Math.abs(path.getCol(step) - path.getCol(step - 1)) +
+                     Math.abs(path.getRow(step) - path.getRow(step - 1)));
+            }
+         }
+         reached += expected >= 0 ? 1 : 0;
+      }
+      assertFalse(reached < 100, "too few reachable goals: " + reached);
+   }
+
+   @Test
+   void cachedPathsAreDroppedByTileChanges() {
+      PathFinder finder = new PathFinder(collisionChecker, 2);
+      int[] free = freeCells(4);
+
+      GridPath first = path(finder, free[0], free[1]);
+      assertSame(first, path(finder, free[0], free[1]));
+      path(finder, free[1], free[2]);
+      path(finder, free[2], free[3]);
+      assertEquals(2, finder.getCachedPaths());
+
+      // The least recently used one has been dropped.
+      assertNotSame(first, path(finder, free[0], free[1]));
+
+      GridPath cached = path(finder, free[0], free[1]);
+      mapManager.getGrid().setCell(0, 0, TestMaps.FLOOR_ID, false, 1.0f);
+      assertNotSame(cached, path(finder, free[0], free[1]));
+      assertEquals(1, finder.getCachedPaths());
+   }
+
+   private GridPath path(PathFinder finder, int start, int goal) {
+      return finder.findPath(start % WIDTH, start / WIDTH, goal % WIDTH, goal / WIDTH, PathFinder.Algorithm.A_STAR);
+   }
+
+   // Free cells connected to each other.
+   private int[] freeCells(int count) {
+      SolidityMap solidity = collisionChecker.currentSolidity();
+      int[] cells = new int[count];
+      int found = 0;
+      for (int cell = WIDTH + 1; found < count && cell < WIDTH * HEIGHT; cell += 37) {
+         int col = cell % WIDTH;
+         int row = cell / WIDTH;
+         if (found == 0 ? !solidity.isSolid(col, row) :
+               breadthFirstSteps(solidity, cells[0] % WIDTH, cells[0] / WIDTH, col, row) > 0) {
+            cells[found++] = cell;
+         }
+      }
+      assertEquals(count, found);
+      return cells;
+   }
+
+   // Steps of the shortest way (-1: cannot be reached).
+   private static int breadthFirstSteps(SolidityMap solidity, int startCol, int startRow, int goalCol, int goalRow) {
+      if (solidity.isSolid(startCol, startRow) || solidity.isSolid(goalCol, goalRow)) {
+         return -1;
+      }
+      int[] steps = new int[WIDTH * HEIGHT];
+      Arrays.fill(steps, -1);
+      ArrayDeque<Integer> queue = new ArrayDeque<>();
+      steps[startRow * WIDTH + startCol] = 0;
+      queue.add(startRow * WIDTH + startCol);
+      int[][] moves = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+      while (!queue.isEmpty()) {
+         int cell = queue.poll();
+         for (int[] move : moves) {
+            int col = cell % WIDTH + move[0];
+            int row = cell / WIDTH + move[1];
+            if (!solidity.isSolid(col, row) && steps[row * WIDTH + col] < 0) {
+               steps[row * WIDTH + col] = steps[cell] + 1;
+               queue.add(row * WIDTH + col);
+            }
+         }
+      }
+      return steps[goalRow * WIDTH + goalCol];
+   }
+
+}
@@ -0,0 +1,42 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.profile;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TimingRingTest {
+
+   @Test
+   void histogramBucketsKeepThePrecision() {
+      for (long value = 0; value < 1_000_000; value += 7) {
+         long highest = TimingHistogram.highestValueOf(TimingHistogram.bucketIndex(value));
+         assertTrue(highest >= value, "value " + value);
+         assertTrue(highest - value <= value / 32, "value " + value + " -> " + highest);
+      }
+      assertEquals(63, TimingHistogram.highestValueOf(TimingHistogram.bucketIndex(63)));
+   }
+
+   @Test
+   void ringKeepsTheLastSamples() {
+      TimingRing ring = new TimingRing(100);
+      for (int i = 1; i <= 300; i++) {
+         ring.add(i * 1000L);
+      }
+
+      // Samples 201 - 300 thousand.
+      assertEquals(100, ring.getCount());
+      assertEquals(201_000, ring.getMin());
+      assertEquals(300_000, ring.getMax());
+      assertEquals(250_500, ring.getAverage());
+
+      long p99 = ring.getPercentile(99.0);
+      assertTrue(p99 >= 299_000 && p99 <= 299_000 + 299_000 / 32, "p99 " + p99);
+   }
+
+}
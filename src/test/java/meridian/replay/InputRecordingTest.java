@@ -0,0 +1,80 @@
+/**
+ * @author Meridian
+ * @since  2023.
+ */
+package meridian.replay;
+
+import meridian.headless.HeadlessGame;
+import meridian.headless.RandomWalkScript;
+import meridian.main.InputScript;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class InputRecordingTest {
+
+   private static final int TICKS = 6000;
+   private static final int HASH_INTERVAL = 60;
+
+   @Test
+   void replayFollowsTheRecordedSession() {
+      InputScript walk = new RandomWalkScript(7, 48);
+      byte[] data = record(walk);
+
+      // Some bytes per direction change and per hash - far less than a byte per tick.
+      assertTrue(data.length < TICKS / 4, "size " + data.length);
+
+      InputRecording recording = InputRecording.read(new ByteArrayInputStream(data));
+      assertEquals(TICKS, recording.getTicks());
+      assertEquals(TICKS / HASH_INTERVAL, recording.getHashCount());
+      for (int tick = 0; tick < TICKS; tick++) {
+         assertEquals(walk.buttonsAt(tick), recording.buttonsAt(tick), "tick " + tick);
+      }
+
+      ReplayResult result = ReplayDriver.replay(recording, new HeadlessGame());
+      assertFalse(result.isDiverged());
+      assertEquals(TICKS / HASH_INTERVAL, result.getCheckedHashes());
+   }
+
+   @Test
+   void divergenceIsDetected() {
+      InputScript walk = new RandomWalkScript(7, 48);
+
+      // Controls of a changed session (standing in the ticks 1000 - 1099) with the hashes of the original one.
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      HeadlessGame original = new HeadlessGame();
+      original.loadMap(1, 4, 3);
+      try (InputRecorder recorder = new InputRecorder(output, 1, 4, 3, HASH_INTERVAL)) {
+         for (long tick = 0; tick < TICKS; tick++) {
+            recorder.record(tick >= 1000 && tick < 1100 ? 0 : walk.buttonsAt(tick));
+            original.run(1, walk);
+            if (recorder.isCheckpoint()) {
+               recorder.checkpoint(StateHash.of(1, recorder.getTicks(), original.getPlayer()));
+            }
+         }
+      }
+
+      ReplayResult result = ReplayDriver.replay(InputRecording.read(new ByteArrayInputStream(output.toByteArray())),
+            new HeadlessGame());
+      assertTrue(result.isDiverged());
+      assertEquals(1020, result.getDivergedTick());
+      assertEquals(1020 / HASH_INTERVAL - 1, result.getCheckedHashes());
+   }
+
+   private static byte[] record(InputScript script) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      HeadlessGame game = new HeadlessGame();
+      game.loadMap(1, 4, 3);
+      try (InputRecorder recorder = new InputRecorder(output, 1, 4, 3, HASH_INTERVAL)) {
+         ReplayDriver.record(recorder, game, script, TICKS);
+      }
+      return output.toByteArray();
+   }
+
+}